@@ -0,0 +1,120 @@
+package benchmark;
+
+import io.FileReader;
+import model.Graph;
+import model.ParsedData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjacency construction with duplicate-neighbour checks: {@link FileReader#loadGraph}
+ * (GraphBuilder) against the node-by-node {@link model.Node#addNeighbour} path and the
+ * List.contains check used before either. {@code hub:<leaves>} is a star graph, the
+ * case where a linear duplicate check is quadratic in the degree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class AdjacencyBenchmark {
+    @Param({ "data/graf1.csrrg", "data/graf2.csrrg", "data/graf3.csrrg", "hub:20000" })
+    public String graph;
+
+    private ParsedData parsedData;
+    private int vertices;
+    private FileReader fileReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fileReader = new FileReader();
+        if (graph.startsWith("hub:")) {
+            parsedData = hubData(Integer.parseInt(graph.substring(4)));
+        } else {
+            parsedData = fileReader.parseFile(GraphSource.resolve(graph).toString());
+        }
+        vertices = fileReader.loadGraph(parsedData).getVertices();
+    }
+
+    @Benchmark
+    public Graph graphBuilder() {
+        return fileReader.loadGraph(parsedData);
+    }
+
+    @Benchmark
+    public int nodeAddNeighbour() {
+        Graph loaded = new Graph(vertices);
+        List<Integer> targets = parsedData.getEdges();
+        List<Integer> rowPointers = parsedData.getRowPointers();
+        for (int i = 0; i < vertices && i < rowPointers.size() - 1; i++) {
+            for (int j = rowPointers.get(i); j < rowPointers.get(i + 1) && j < targets.size(); j++) {
+                int neighbour = targets.get(j);
+                if (loaded.getNode(i).addNeighbour(neighbour)) {
+                    loaded.getNode(neighbour).addNeighbour(i);
+                }
+            }
+        }
+        return loaded.getCsr().getEdges();
+    }
+
+    @Benchmark
+    public int listContains() {
+        List<List<Integer>> adjacency = new ArrayList<>(vertices);
+        for (int i = 0; i < vertices; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        int edges = 0;
+        List<Integer> targets = parsedData.getEdges();
+        List<Integer> rowPointers = parsedData.getRowPointers();
+        for (int i = 0; i < vertices && i < rowPointers.size() - 1; i++) {
+            for (int j = rowPointers.get(i); j < rowPointers.get(i + 1) && j < targets.size(); j++) {
+                int neighbour = targets.get(j);
+                if (!adjacency.get(i).contains(neighbour)) {
+                    adjacency.get(i).add(neighbour);
+                    if (!adjacency.get(neighbour).contains(i)) {
+                        adjacency.get(neighbour).add(i);
+                    }
+                    edges++;
+                }
+            }
+        }
+        return edges;
+    }
+
+    // vertex 0 is connected to every leaf, each row listing the edge from its side
+    private static ParsedData hubData(int leaves) {
+        List<Integer> targets = new ArrayList<>();
+        List<Integer> rowPointers = new ArrayList<>();
+        rowPointers.add(0);
+        for (int leaf = 1; leaf <= leaves; leaf++) {
+            targets.add(leaf);
+        }
+        rowPointers.add(targets.size());
+        for (int leaf = 1; leaf <= leaves; leaf++) {
+            targets.add(0);
+            rowPointers.add(targets.size());
+        }
+        ParsedData data = new ParsedData();
+        data.setLine1(leaves + 1);
+        data.setEdges(targets);
+        data.setRowPointers(rowPointers);
+        data.setNumberOfPartitions(1);
+        return data;
+    }
+}
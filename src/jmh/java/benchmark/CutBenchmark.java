@@ -0,0 +1,93 @@
+package benchmark;
+
+import io.FileReader;
+import model.CsrGraph;
+import model.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.CutEvaluator;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CutEvaluator} sequential and parallel, against the former string keyed
+ * edge set. Vertices are split into parts by contiguous id ranges, which keeps
+ * the setup cheap on the large synthetic graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class CutBenchmark {
+    @Param({ "data/graf1.csrrg", "grid:1000000", "rmat:1000000" })
+    public String graph;
+
+    @Param({ "8" })
+    public int parts;
+
+    private CsrGraph csr;
+    private int[] partIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FileReader fileReader = new FileReader();
+        Graph loaded = fileReader.loadGraph(fileReader.parseFile(GraphSource.resolve(graph).toString()));
+        csr = loaded.getCsr();
+        partIds = new int[csr.getVertices()];
+        for (int v = 0; v < partIds.length; v++) {
+            partIds[v] = (int) ((long) v * parts / partIds.length);
+        }
+    }
+
+    @Benchmark
+    public int countCutEdges() {
+        return CutEvaluator.countCutEdges(csr, partIds, false);
+    }
+
+    @Benchmark
+    public int countCutEdgesParallel() {
+        return CutEvaluator.countCutEdges(csr, partIds, true);
+    }
+
+    @Benchmark
+    public long communicationVolume() {
+        return CutEvaluator.communicationVolume(csr, partIds, parts, false);
+    }
+
+    @Benchmark
+    public long communicationVolumeParallel() {
+        return CutEvaluator.communicationVolume(csr, partIds, parts, true);
+    }
+
+    // how cut edges used to be counted: one "min-max" string per cut edge in a set
+    @Benchmark
+    public int stringKeySet() {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        Set<String> cutEdges = new HashSet<>();
+        for (int v = 0; v < partIds.length; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (partIds[u] != partIds[v]) {
+                    cutEdges.add(Math.min(u, v) + "-" + Math.max(u, v));
+                }
+            }
+        }
+        return cutEdges.size();
+    }
+}
@@ -0,0 +1,42 @@
+package benchmark;
+
+import io.GraphGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves a benchmark graph parameter to a file. Plain paths such as
+ * {@code data/graf1.csrrg} are used as they are (run from the repository root);
+ * {@code <type>:<edges>} with a type of {@link GraphGenerator.Type} (grid, rgg, rmat,
+ * planted) generates a graph with about that many edges into a temporary file once
+ * per JVM, for example {@code rmat:1e6}.
+ */
+final class GraphSource {
+    private static final long SEED = 42;
+    private static final Map<String, Path> GENERATED = new HashMap<>();
+
+    private GraphSource() {
+    }
+
+    static synchronized Path resolve(String spec) throws IOException {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            return Paths.get(spec);
+        }
+        Path path = GENERATED.get(spec);
+        if (path == null) {
+            GraphGenerator.Type type = GraphGenerator.Type.fromOptionName(spec.substring(0, colon));
+            long edges = (long) Double.parseDouble(spec.substring(colon + 1));
+            path = Files.createTempFile("bench_" + type.getOptionName() + "_" + edges + "_", ".csrrg");
+            path.toFile().deleteOnExit();
+            GraphGenerator.generate(type, type.defaultVertices(edges), edges, SEED, false, path.toString());
+            GENERATED.put(spec, path);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import algorithm.FmOptimization;
+import algorithm.MultilevelPartitioning;
+import algorithm.RegionGrowing;
+import io.FileReader;
+import model.Graph;
+import model.PartitionData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegionGrowing#regionGrowing}, {@link RegionGrowing#parallelRegionGrowing},
+ * {@link FmOptimization#cutEdgesOptimization} and
+ * {@link MultilevelPartitioning#multilevelPartitioning}. FM always starts from the
+ * same seeded region growing partition, restored before every invocation. Larger
+ * synthetic inputs can be selected with {@code -p graph=grid:1000000} or
+ * {@code -p graph=rmat:1000000}, other partition counts with {@code -p parts=2,8,32}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class PartitioningBenchmark {
+    private static final long SEED = 42;
+
+    @Param({ "data/graf.csrrg", "data/graf4.csrrg", "data/graf1.csrrg", "grid:10000", "grid:100000",
+            "rgg:100000", "rmat:100000", "planted:100000" })
+    public String graph;
+
+    @Param({ "8" })
+    public int parts;
+
+    @Param({ "10" })
+    public float accuracyPercent;
+
+    @Param({ "100" })
+    public int fmIterations;
+
+    private Graph loaded;
+    private PartitionData partitionData;
+    private int[] initialPartIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FileReader fileReader = new FileReader();
+        loaded = fileReader.loadGraph(fileReader.parseFile(GraphSource.resolve(graph).toString()));
+        loaded.setPartitions(parts);
+        loaded.setMinCount(accuracyPercent / 100.0);
+        loaded.setMaxCount(accuracyPercent / 100.0);
+        partitionData = new PartitionData(parts);
+        RegionGrowing.regionGrowing(loaded, parts, partitionData, accuracyPercent / 100.0f, new Random(SEED));
+        initialPartIds = loaded.getPartIds().clone();
+    }
+
+    @Setup(Level.Invocation)
+    public void restorePartition() {
+        System.arraycopy(initialPartIds, 0, loaded.getPartIds(), 0, initialPartIds.length);
+        partitionData.assignFromPartIds(initialPartIds);
+    }
+
+    @Benchmark
+    public PartitionData regionGrowing() {
+        RegionGrowing.regionGrowing(loaded, parts, partitionData, accuracyPercent / 100.0f, new Random(SEED));
+        return partitionData;
+    }
+
+    @Benchmark
+    public PartitionData parallelRegionGrowing() {
+        RegionGrowing.parallelRegionGrowing(loaded, parts, partitionData, accuracyPercent / 100.0f,
+                new Random(SEED));
+        return partitionData;
+    }
+
+    @Benchmark
+    public PartitionData cutEdgesOptimization() {
+        FmOptimization.cutEdgesOptimization(loaded, partitionData, fmIterations);
+        return partitionData;
+    }
+
+    @Benchmark
+    public PartitionData multilevelPartitioning() {
+        MultilevelPartitioning.multilevelPartitioning(loaded, parts, partitionData, accuracyPercent / 100.0f,
+                fmIterations, new Random(SEED));
+        return partitionData;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import io.FileReader;
+import model.Graph;
+import model.ParsedData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and graph construction: {@link FileReader#parseFile} and {@link FileReader#loadGraph}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class ReadBenchmark {
+    @Param({ "data/graf.csrrg", "data/graf4.csrrg", "data/graf1.csrrg", "grid:10000", "grid:100000",
+            "grid:1000000", "grid:10000000", "rgg:1000000", "rmat:1000000", "planted:1000000" })
+    public String graph;
+
+    private String path;
+    private ParsedData parsedData;
+    private FileReader fileReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = GraphSource.resolve(graph).toString();
+        fileReader = new FileReader();
+        parsedData = fileReader.parseFile(path);
+    }
+
+    @Benchmark
+    public ParsedData parseFile() throws IOException {
+        return fileReader.parseFile(path);
+    }
+
+    @Benchmark
+    public Graph loadGraph() {
+        return fileReader.loadGraph(parsedData);
+    }
+}
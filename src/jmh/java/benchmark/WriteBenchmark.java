@@ -0,0 +1,78 @@
+package benchmark;
+
+import algorithm.RegionGrowing;
+import io.FileReader;
+import io.FileWriter;
+import model.Graph;
+import model.PartitionData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FileWriter#writeText} and {@link FileWriter#writeBinary} of a seeded
+ * region growing partition. Larger synthetic inputs can be selected with
+ * {@code -p graph=grid:1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class WriteBenchmark {
+    @Param({ "data/graf.csrrg", "data/graf4.csrrg", "data/graf1.csrrg", "grid:10000", "grid:100000" })
+    public String graph;
+
+    @Param({ "8" })
+    public int parts;
+
+    private Graph loaded;
+    private PartitionData partitionData;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FileReader fileReader = new FileReader();
+        loaded = fileReader.loadGraph(fileReader.parseFile(GraphSource.resolve(graph).toString()));
+        loaded.setPartitions(parts);
+        loaded.setMinCount(0.1);
+        loaded.setMaxCount(0.1);
+        partitionData = new PartitionData(parts);
+        RegionGrowing.regionGrowing(loaded, parts, partitionData, 0.1f, new Random(42));
+        output = Files.createTempFile("bench_out_", ".tmp");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public Path writeText() throws IOException {
+        FileWriter.writeText(output.toString(), loaded.getParsedData(), partitionData, loaded, parts);
+        return output;
+    }
+
+    @Benchmark
+    public Path writeBinary() throws IOException {
+        FileWriter.writeBinary(output.toString(), loaded.getParsedData(), partitionData, loaded, parts);
+        return output;
+    }
+}
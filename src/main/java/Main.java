@@ -1,8 +1,25 @@
+import cli.BatchRunner;
+import cli.CommandLineRunner;
+import cli.GeneratorRunner;
 import gui.MainWindow;
 import javax.swing.SwingUtilities;
+import java.util.Arrays;
 
 public class Main {
     public static void main(String[] args) {
+        // "batch" and "generate" select their runners, any other argument the single graph command line mode
+        if (args.length > 0 && args[0].equals("batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("generate")) {
+            GeneratorRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0) {
+            CommandLineRunner.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             try {
                 MainWindow window = new MainWindow();
@@ -1,64 +1,112 @@
 package algorithm;
 
+import model.CsrGraph;
 import model.Graph;
-import model.Node;
 import model.PartitionData;
+import utils.CutEvaluator;
 
 import java.util.Arrays;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Set;
-import java.util.HashSet;
 
 public class FmOptimization {
     /**
      * Context class for the FM algorithm, holding all necessary data
      */
     private static class FmContext {
-        private Graph graph;
-        private PartitionData partitionData;
+        private int numVertices;
+        private int numPartitions;
+        private int minCount;
+        private int maxCount;
         private int maxIterations;
         private int initialCut;
         private int currentCut;
-        private boolean[] locked;
-        private int[] gains;
+        private int[] lockedInPass;
+        private int pass;
+        private boolean boundaryOnly;
+        private int maxNonImprovingMoves;
+        private int[] externalDegree;
+        private int[] boundary;
+        private int[] boundaryPosition;
+        private int boundarySize;
         private int[] partSizes;
+        private int[] offsets;
+        private int[] targets;
+        private int[] edgeWeights;
+        private int[] vertexWeights;
+        private int[] partIds;
+        private GainBucketQueue queue;
+        private int[] neighbourCounts;
+        private int[] touchedParts;
+        private int[] movedVertices;
+        private int[] movedFrom;
+        private int bestTarget;
+        private int bestGain;
+        private MoveRing moves;
 
-        public FmContext(Graph graph, PartitionData partitionData, int maxIterations) {
-            this.graph = graph;
-            this.partitionData = partitionData;
+        public FmContext(CsrGraph csr, int[] edgeWeights, int[] vertexWeights, int[] partIds, int numPartitions,
+                int minCount, int maxCount, int maxIterations) {
+            this.numVertices = csr.getVertices();
+            this.numPartitions = numPartitions;
+            this.minCount = minCount;
+            this.maxCount = maxCount;
             this.maxIterations = maxIterations;
             this.initialCut = 0;
             this.currentCut = 0;
-            int numVertices = graph.getVertices();
-            this.locked = new boolean[numVertices];
-            this.gains = new int[numVertices * graph.getPartitions()];
-            this.partSizes = new int[graph.getPartitions()];
-
-            if (partitionData != null && partitionData.getPartitions() != null
-                    && partitionData.getPartsCount() == graph.getPartitions()) {
-                for (int i = 0; i < graph.getPartitions(); i++) {
-                    if (i < partitionData.getPartitions().size() && partitionData.getPartitions().get(i) != null) {
-                        this.partSizes[i] = partitionData.getPartitions().get(i).getPartitionNodes().size();
-                    } else {
-                        this.partSizes[i] = 0;
-                    }
+            this.lockedInPass = new int[numVertices];
+            this.pass = 0;
+            this.partSizes = new int[numPartitions];
+            this.offsets = csr.getOffsets();
+            this.targets = csr.getTargets();
+            this.edgeWeights = edgeWeights;
+            this.vertexWeights = vertexWeights;
+            this.partIds = partIds;
+
+            int maxDegree = 0;
+            for (int v = 0; v < numVertices; v++) {
+                int degree = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    degree += edgeWeight(this, i);
                 }
-            } else {
-                Arrays.fill(this.partSizes, 0);
-                if (graph.getNodes() != null) {
-                    for (Node node : graph.getNodes()) {
-                        int partId = node.getPartId();
-                        if (partId >= 0 && partId < graph.getPartitions()) {
-                            this.partSizes[partId]++;
-                        }
-                    }
+                maxDegree = Math.max(maxDegree, degree);
+            }
+            this.queue = new GainBucketQueue(numVertices, maxDegree);
+            this.neighbourCounts = new int[numPartitions];
+            this.touchedParts = new int[numPartitions];
+            this.movedVertices = new int[numVertices];
+            this.movedFrom = new int[numVertices];
+
+            for (int v = 0; v < numVertices; v++) {
+                int partId = partIds[v];
+                if (partId >= 0 && partId < numPartitions) {
+                    this.partSizes[partId] += vertexWeight(this, v);
                 }
             }
         }
     }
 
     public static void cutEdgesOptimization(Graph graph, PartitionData partitionData, int maxIterations) {
+        cutEdgesOptimization(graph, partitionData, maxIterations, false, 0);
+    }
+
+    /**
+     * Runs FM refinement. In boundary mode only vertices with a neighbour in another
+     * partition are evaluated and the boundary set is kept up to date as moves are
+     * applied, so a pass costs time proportional to the cut rather than to V.
+     * A pass stops early after maxNonImprovingMoves moves without a new best cut
+     * (0 means no limit).
+     */
+    public static void cutEdgesOptimization(Graph graph, PartitionData partitionData, int maxIterations,
+            boolean boundaryOnly, int maxNonImprovingMoves) {
+        cutEdgesOptimization(graph, partitionData, maxIterations, boundaryOnly, maxNonImprovingMoves, null);
+    }
+
+    /**
+     * As above, reporting every pass to the listener and stopping before the next
+     * pass once it is cancelled. A pass always ends on its best prefix of moves, so
+     * a cancelled run still leaves the best partition found so far. Every applied
+     * move, including those rolled back, goes to the listener's move ring if it has one.
+     */
+    public static void cutEdgesOptimization(Graph graph, PartitionData partitionData, int maxIterations,
+            boolean boundaryOnly, int maxNonImprovingMoves, ProgressListener listener) {
         if (graph == null || graph.getVertices() == 0 || graph.getPartitions() <= 1 || partitionData == null) {
             return;
         }
@@ -66,231 +114,308 @@ public class FmOptimization {
             maxIterations = Math.max(1, graph.getVertices() / 10);
         }
 
-        FmContext context = new FmContext(graph, partitionData, maxIterations);
-        context.initialCut = countCutEdges(graph);
+        int cut = refine(graph.getCsr(), null, null, graph.getPartIds(), graph.getPartitions(), graph.getMinCount(),
+                graph.getMaxCount(), maxIterations, boundaryOnly, maxNonImprovingMoves, listener,
+                listener != null ? listener.getMoveRing() : null);
+        if (cut >= 0) {
+            syncContextToConfig(partitionData, graph.getPartIds());
+        }
+    }
+
+    /**
+     * Weighted FM core shared with the multilevel partitioner. Edge weights are
+     * aligned with the CSR targets and vertex weights count towards the
+     * minCount/maxCount balance limits; null arrays mean unit weights.
+     * Refines partIds in place and returns the resulting cut weight, or -1 when
+     * there was nothing to refine. The listener and the move ring may be null; the
+     * ring receives a RESET move with the initial cut and then every applied move.
+     */
+    static int refine(CsrGraph csr, int[] edgeWeights, int[] vertexWeights, int[] partIds, int numPartitions,
+            int minCount, int maxCount, int maxIterations, boolean boundaryOnly, int maxNonImprovingMoves,
+            ProgressListener listener, MoveRing moves) {
+        FmContext context = new FmContext(csr, edgeWeights, vertexWeights, partIds, numPartitions, minCount,
+                maxCount, maxIterations);
+        context.maxNonImprovingMoves = Math.max(0, maxNonImprovingMoves);
+        context.moves = moves;
+        if (boundaryOnly) {
+            initBoundary(context);
+        }
+        context.initialCut = CutEvaluator.cutWeight(csr, edgeWeights, partIds, false);
         context.currentCut = context.initialCut;
+        if (moves != null) {
+            moves.publish(MoveRing.RESET, -1, -1, context.initialCut);
+        }
 
         if (context.initialCut == 0) {
-            return;
+            return -1;
         }
 
-        int[] overallBestPartitionConfig = new int[graph.getVertices()];
-        if (graph.getNodes() != null) {
-            for (int i = 0; i < graph.getVertices(); ++i)
-                overallBestPartitionConfig[i] = graph.getNode(i).getPartId();
+        for (int iter = 0; iter < context.maxIterations; iter++) {
+            if (listener != null && listener.isCancelled()) {
+                break;
+            }
+            int cutBeforePass = context.currentCut;
+            runPass(context);
+            if (listener != null) {
+                listener.passCompleted(iter + 1, context.maxIterations, context.currentCut);
+            }
+            if (context.currentCut >= cutBeforePass || context.currentCut == 0) {
+                break;
+            }
         }
-        int overallBestCut = context.initialCut;
+        return context.currentCut;
+    }
 
-        for (int iter = 0; iter < context.maxIterations; iter++) {
-            Arrays.fill(context.locked, false);
-
-            int[] currentPassBestConfig = new int[graph.getVertices()];
-            for (int i = 0; i < graph.getVertices(); ++i)
-                currentPassBestConfig[i] = graph.getNode(i).getPartId();
-            int currentPassBestCut = context.currentCut;
-
-            for (int moveAttempt = 0; moveAttempt < graph.getVertices(); moveAttempt++) {
-                int bestVertexToMove = -1;
-                int maxGain = Integer.MIN_VALUE;
-                int targetPartitionForBestMove = -1;
-
-                calculateAllVertexGains(context);
-
-                for (int vId = 0; vId < graph.getVertices(); vId++) {
-                    if (!context.locked[vId]) {
-                        Node node = graph.getNode(vId);
-                        int originalPartId = node.getPartId();
-                        for (int pTargetId = 0; pTargetId < graph.getPartitions(); pTargetId++) {
-                            if (pTargetId == originalPartId)
-                                continue;
-                            if (!isMoveBalanced(context, vId, pTargetId, graph.getMinCount(), graph.getMaxCount()))
-                                continue;
-
-                            int currentGain = context.gains[vId * graph.getPartitions() + pTargetId];
-                            if (currentGain > maxGain) {
-                                maxGain = currentGain;
-                                bestVertexToMove = vId;
-                                targetPartitionForBestMove = pTargetId;
-                            }
-                        }
-                    }
-                }
+    private static int edgeWeight(FmContext context, int edgeIndex) {
+        return context.edgeWeights == null ? 1 : context.edgeWeights[edgeIndex];
+    }
 
-                if (bestVertexToMove != -1) {
-                    applyMove(context, bestVertexToMove, targetPartitionForBestMove);
-                    context.locked[bestVertexToMove] = true;
-                    context.currentCut -= maxGain;
-
-                    if (context.currentCut < currentPassBestCut) {
-                        currentPassBestCut = context.currentCut;
-                        for (int i = 0; i < graph.getVertices(); ++i)
-                            currentPassBestConfig[i] = graph.getNode(i).getPartId();
-                    }
-                } else {
-                    break;
+    private static int vertexWeight(FmContext context, int vertex) {
+        return context.vertexWeights == null ? 1 : context.vertexWeights[vertex];
+    }
+
+    /**
+     * One FM pass: repeatedly applies the best balanced move of an unlocked vertex,
+     * then rolls back to the prefix of moves that gave the lowest cut.
+     */
+    private static void runPass(FmContext context) {
+        int numVertices = context.numVertices;
+        context.pass++;
+        context.queue.clear();
+
+        if (context.boundaryOnly) {
+            for (int i = 0; i < context.boundarySize; i++) {
+                int v = context.boundary[i];
+                if (findBestMove(context, v)) {
+                    context.queue.insert(v, context.bestGain);
                 }
             }
-
-            if (currentPassBestCut < overallBestCut) {
-                overallBestCut = currentPassBestCut;
-                overallBestPartitionConfig = Arrays.copyOf(currentPassBestConfig, currentPassBestConfig.length);
-            } else {
-                for (int i = 0; i < graph.getVertices(); ++i) {
-                    graph.getNode(i).setPartId(overallBestPartitionConfig[i]);
+        } else {
+            for (int v = 0; v < numVertices; v++) {
+                if (findBestMove(context, v)) {
+                    context.queue.insert(v, context.bestGain);
                 }
-                syncContextToConfig(context, overallBestPartitionConfig);
-                context.currentCut = overallBestCut;
-                break;
+            }
+        }
+
+        int moves = 0;
+        int bestMoves = 0;
+        int bestCut = context.currentCut;
+
+        while (!context.queue.isEmpty() && moves < numVertices) {
+            int vertex = context.queue.peekMax();
+            if (!findBestMove(context, vertex)) {
+                context.queue.remove(vertex);
+                continue;
+            }
+            if (context.bestGain != context.queue.getGain(vertex)) {
+                // stale key after balance changes - requeue with the current gain
+                context.queue.update(vertex, context.bestGain);
+                continue;
             }
 
-            for (int i = 0; i < graph.getVertices(); ++i) {
-                graph.getNode(i).setPartId(currentPassBestConfig[i]);
+            context.queue.remove(vertex);
+            context.lockedInPass[vertex] = context.pass;
+            context.movedVertices[moves] = vertex;
+            context.movedFrom[moves] = context.partIds[vertex];
+            context.currentCut -= context.bestGain;
+            applyMove(context, vertex, context.bestTarget);
+            moves++;
+
+            if (context.currentCut < bestCut) {
+                bestCut = context.currentCut;
+                bestMoves = moves;
             }
-            syncContextToConfig(context, currentPassBestConfig);
-            context.currentCut = currentPassBestCut;
 
-            if (overallBestCut == 0)
+            updateNeighbourGains(context, vertex);
+
+            if (context.maxNonImprovingMoves > 0 && moves - bestMoves >= context.maxNonImprovingMoves) {
                 break;
+            }
         }
 
-        if (context.currentCut > overallBestCut || !Arrays.equals(getNodePartIds(graph), overallBestPartitionConfig)) {
-            for (int i = 0; i < graph.getVertices(); ++i) {
-                graph.getNode(i).setPartId(overallBestPartitionConfig[i]);
-            }
+        // rolled back moves are reported with the cut the pass ends on
+        context.currentCut = bestCut;
+        for (int i = moves - 1; i >= bestMoves; i--) {
+            applyMove(context, context.movedVertices[i], context.movedFrom[i]);
         }
-        syncContextToConfig(context, overallBestPartitionConfig);
     }
 
-    private static int[] getNodePartIds(Graph graph) {
-        int[] ids = new int[graph.getVertices()];
-        for (int i = 0; i < graph.getVertices(); ++i)
-            ids[i] = graph.getNode(i).getPartId();
-        return ids;
+    private static void updateNeighbourGains(FmContext context, int vertex) {
+        for (int i = context.offsets[vertex]; i < context.offsets[vertex + 1]; i++) {
+            int neighbour = context.targets[i];
+            if (neighbour == vertex || context.lockedInPass[neighbour] == context.pass) {
+                continue;
+            }
+            if (context.boundaryOnly && context.externalDegree[neighbour] == 0) {
+                context.queue.remove(neighbour);
+            } else if (findBestMove(context, neighbour)) {
+                context.queue.insert(neighbour, context.bestGain);
+            } else {
+                context.queue.remove(neighbour);
+            }
+        }
     }
 
-    private static void syncContextToConfig(FmContext context, int[] config) {
-        Arrays.fill(context.partSizes, 0);
-        for (int i = 0; i < config.length; ++i) {
-            if (config[i] >= 0 && config[i] < context.partSizes.length) {
-                context.partSizes[config[i]]++;
-            }
+    /**
+     * Finds the best balanced target partition for a vertex in O(deg + k).
+     * The gain is the reduction of the cut: edges to the target partition minus
+     * edges staying inside the current one. Result is left in bestTarget/bestGain.
+     */
+    private static boolean findBestMove(FmContext context, int vertex) {
+        context.bestTarget = -1;
+        context.bestGain = Integer.MIN_VALUE;
+        int currentPartId = context.partIds[vertex];
+        int weight = vertexWeight(context, vertex);
+        if (currentPartId < 0 || currentPartId >= context.numPartitions
+                || !canLeave(context, currentPartId, weight)) {
+            return false;
         }
-        if (context.partitionData != null && context.partitionData.getPartitions() != null) {
-            for (model.Partition p : context.partitionData.getPartitions()) {
-                if (p != null) {
-                    p.getPartitionNodes().clear();
-                    p.setPartitionVertexCount(0);
-                }
+
+        int internal = 0;
+        int touched = 0;
+        for (int i = context.offsets[vertex]; i < context.offsets[vertex + 1]; i++) {
+            int neighbour = context.targets[i];
+            if (neighbour == vertex) {
+                continue;
             }
-            for (int i = 0; i < config.length; ++i) {
-                if (config[i] >= 0 && config[i] < context.partitionData.getPartsCount()) {
-                    if (context.partitionData.getPartitions().get(config[i]) != null) {
-                        context.partitionData.addVertexToPartition(config[i], i);
-                    }
+            int neighbourPartId = context.partIds[neighbour];
+            int edgeWeight = edgeWeight(context, i);
+            if (neighbourPartId == currentPartId) {
+                internal += edgeWeight;
+            } else if (neighbourPartId >= 0 && neighbourPartId < context.numPartitions) {
+                if (context.neighbourCounts[neighbourPartId] == 0) {
+                    context.touchedParts[touched++] = neighbourPartId;
                 }
+                context.neighbourCounts[neighbourPartId] += edgeWeight;
             }
         }
-    }
 
-    private static void calculateAllVertexGains(FmContext context) {
-        int numPartitions = context.graph.getPartitions();
-        if (context.gains.length != context.graph.getVertices() * numPartitions) {
-            context.gains = new int[context.graph.getVertices() * numPartitions];
+        for (int i = 0; i < touched; i++) {
+            int partId = context.touchedParts[i];
+            int gain = context.neighbourCounts[partId] - internal;
+            context.neighbourCounts[partId] = 0;
+            if (canEnter(context, partId, weight) && gain > context.bestGain) {
+                context.bestGain = gain;
+                context.bestTarget = partId;
+            }
         }
 
-        for (int vId = 0; vId < context.graph.getVertices(); vId++) {
-            if (context.locked[vId])
-                continue;
-            Node node = context.graph.getNode(vId);
-            if (node == null)
-                continue;
-            int currentPartId = node.getPartId();
-            for (int targetPartId = 0; targetPartId < numPartitions; targetPartId++) {
-                if (targetPartId == currentPartId) {
-                    context.gains[vId * numPartitions + targetPartId] = Integer.MIN_VALUE;
-                    continue;
+        if (context.bestTarget == -1) {
+            for (int partId = 0; partId < context.numPartitions; partId++) {
+                if (partId != currentPartId && canEnter(context, partId, weight)) {
+                    context.bestGain = -internal;
+                    context.bestTarget = partId;
+                    break;
                 }
-                context.gains[vId * numPartitions + targetPartId] = calculateGainForSingleMove(context.graph, vId,
-                        targetPartId);
             }
         }
+        return context.bestTarget != -1;
     }
 
-    private static int calculateGainForSingleMove(Graph graph, int vertexId, int targetPartId) {
-        Node node = graph.getNode(vertexId);
-        if (node == null)
-            return Integer.MIN_VALUE;
-        int currentPartId = node.getPartId();
-        int gain = 0;
-        for (Node neighborNode : node.getNeighbours()) {
-            Node actualNeighbor = graph.getNode(neighborNode.getId());
-            if (actualNeighbor == null)
-                continue;
-            int neighborPartId = actualNeighbor.getPartId();
-            if (neighborPartId == currentPartId)
-                gain++;
-            if (neighborPartId == targetPartId)
-                gain--;
-        }
-        return gain;
+    private static boolean canLeave(FmContext context, int partId, int weight) {
+        int minCount = context.minCount;
+        return !(context.partSizes[partId] - weight < minCount && context.partSizes[partId] > 0 && minCount > 0);
     }
 
-    private static boolean isMoveBalanced(FmContext context, int vertexId, int targetPartId, int minCount,
-            int maxCount) {
-        Node node = context.graph.getNode(vertexId);
-        if (node == null)
-            return false;
-        int currentPartId = node.getPartId();
-        if (context.partSizes[currentPartId] - 1 < minCount && context.partSizes[currentPartId] > 0 && minCount > 0)
-            return false;
-        if (context.partSizes[targetPartId] + 1 > maxCount && maxCount > 0)
-            return false;
-        return true;
+    private static boolean canEnter(FmContext context, int partId, int weight) {
+        int maxCount = context.maxCount;
+        return !(context.partSizes[partId] + weight > maxCount && maxCount > 0);
+    }
+
+    // delta update: only the vertices FM moved change partition
+    private static void syncContextToConfig(PartitionData partitionData, int[] config) {
+        if (partitionData != null) {
+            partitionData.assignFromPartIds(config);
+        }
     }
 
     private static void applyMove(FmContext context, int vertexId, int newPartId) {
-        Node node = context.graph.getNode(vertexId);
-        if (node == null)
-            return;
-        int oldPartId = node.getPartId();
-        node.setPartId(newPartId);
-
-        if (context.partitionData != null && context.partitionData.getPartitions() != null) {
-            if (oldPartId >= 0 && oldPartId < context.partitionData.getPartsCount() &&
-                    context.partitionData.getPartitions().get(oldPartId) != null) {
-                context.partitionData.getPartitions().get(oldPartId).getPartitionNodes()
-                        .remove(Integer.valueOf(vertexId));
+        int oldPartId = context.partIds[vertexId];
+        context.partIds[vertexId] = newPartId;
+        context.partSizes[oldPartId] -= vertexWeight(context, vertexId);
+        context.partSizes[newPartId] += vertexWeight(context, vertexId);
+        if (context.boundaryOnly) {
+            updateBoundary(context, vertexId, oldPartId, newPartId);
+        }
+        if (context.moves != null) {
+            context.moves.publish(vertexId, oldPartId, newPartId, context.currentCut);
+        }
+    }
+
+    private static void initBoundary(FmContext context) {
+        int numVertices = context.numVertices;
+        context.boundaryOnly = true;
+        context.externalDegree = new int[numVertices];
+        context.boundary = new int[numVertices];
+        context.boundaryPosition = new int[numVertices];
+        Arrays.fill(context.boundaryPosition, -1);
+        context.boundarySize = 0;
+        for (int v = 0; v < numVertices; v++) {
+            int external = 0;
+            for (int i = context.offsets[v]; i < context.offsets[v + 1]; i++) {
+                if (context.partIds[context.targets[i]] != context.partIds[v]) {
+                    external++;
+                }
             }
-            if (newPartId >= 0 && newPartId < context.partitionData.getPartsCount() &&
-                    context.partitionData.getPartitions().get(newPartId) != null) {
-                context.partitionData.getPartitions().get(newPartId).getPartitionNodes().add(vertexId);
+            context.externalDegree[v] = external;
+            if (external > 0) {
+                addToBoundary(context, v);
             }
         }
-
-        context.partSizes[oldPartId]--;
-        context.partSizes[newPartId]++;
     }
 
-    private static int countCutEdges(Graph graph) {
-        int cutEdges = 0;
-        if (graph.getNodes() == null)
-            return 0;
-        Set<String> countedEdges = new HashSet<>();
-        for (Node node : graph.getNodes()) {
-            if (node == null)
+    // external degrees change only for the moved vertex and its neighbours
+    private static void updateBoundary(FmContext context, int vertex, int oldPartId, int newPartId) {
+        int external = 0;
+        for (int i = context.offsets[vertex]; i < context.offsets[vertex + 1]; i++) {
+            int neighbour = context.targets[i];
+            if (neighbour == vertex) {
                 continue;
-            for (Node neighbor : node.getNeighbours()) {
-                Node actualNeighbor = graph.getNode(neighbor.getId());
-                if (actualNeighbor != null && node.getPartId() != actualNeighbor.getPartId()) {
-                    String edge1 = Math.min(node.getId(), actualNeighbor.getId()) + "-"
-                            + Math.max(node.getId(), actualNeighbor.getId());
-                    if (!countedEdges.contains(edge1)) {
-                        cutEdges++;
-                        countedEdges.add(edge1);
-                    }
-                }
             }
+            int neighbourPartId = context.partIds[neighbour];
+            if (neighbourPartId != newPartId) {
+                external++;
+            }
+            if (neighbourPartId == oldPartId) {
+                context.externalDegree[neighbour]++;
+            } else if (neighbourPartId == newPartId) {
+                context.externalDegree[neighbour]--;
+            }
+            if (context.externalDegree[neighbour] > 0) {
+                addToBoundary(context, neighbour);
+            } else {
+                removeFromBoundary(context, neighbour);
+            }
+        }
+        context.externalDegree[vertex] = external;
+        if (external > 0) {
+            addToBoundary(context, vertex);
+        } else {
+            removeFromBoundary(context, vertex);
+        }
+    }
+
+    private static void addToBoundary(FmContext context, int vertex) {
+        if (context.boundaryPosition[vertex] == -1) {
+            context.boundaryPosition[vertex] = context.boundarySize;
+            context.boundary[context.boundarySize++] = vertex;
         }
-        return cutEdges;
+    }
+
+    private static void removeFromBoundary(FmContext context, int vertex) {
+        int position = context.boundaryPosition[vertex];
+        if (position != -1) {
+            int last = context.boundary[--context.boundarySize];
+            context.boundary[position] = last;
+            context.boundaryPosition[last] = position;
+            context.boundaryPosition[vertex] = -1;
+        }
+    }
+
+    public static int countCutEdges(Graph graph) {
+        if (graph == null || graph.getVertices() == 0)
+            return 0;
+        return CutEvaluator.countCutEdges(graph.getCsr(), graph.getPartIds());
     }
 }
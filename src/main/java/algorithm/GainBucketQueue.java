@@ -0,0 +1,121 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Fiduccia-Mattheyses gain buckets: one doubly linked list of vertices per gain
+ * value, so insert, remove and gain updates are O(1) and the max lookup only
+ * walks down over buckets emptied since the last call.
+ */
+final class GainBucketQueue {
+    private static final int NONE = -1;
+
+    private final int maxGain;
+    private final int[] heads;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] gains;
+    private final boolean[] contained;
+    private int topBucket;
+    private int size;
+
+    GainBucketQueue(int vertices, int maxGain) {
+        this.maxGain = Math.max(0, maxGain);
+        this.heads = new int[2 * this.maxGain + 1];
+        this.next = new int[vertices];
+        this.prev = new int[vertices];
+        this.gains = new int[vertices];
+        this.contained = new boolean[vertices];
+        Arrays.fill(this.heads, NONE);
+        this.topBucket = NONE;
+        this.size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int vertex) {
+        return contained[vertex];
+    }
+
+    int getGain(int vertex) {
+        return gains[vertex];
+    }
+
+    void insert(int vertex, int gain) {
+        if (contained[vertex]) {
+            update(vertex, gain);
+            return;
+        }
+        int bucket = bucketOf(gain);
+        gains[vertex] = gain;
+        prev[vertex] = NONE;
+        next[vertex] = heads[bucket];
+        if (heads[bucket] != NONE) {
+            prev[heads[bucket]] = vertex;
+        }
+        heads[bucket] = vertex;
+        contained[vertex] = true;
+        size++;
+        if (bucket > topBucket) {
+            topBucket = bucket;
+        }
+    }
+
+    void remove(int vertex) {
+        if (!contained[vertex]) {
+            return;
+        }
+        if (prev[vertex] != NONE) {
+            next[prev[vertex]] = next[vertex];
+        } else {
+            heads[bucketOf(gains[vertex])] = next[vertex];
+        }
+        if (next[vertex] != NONE) {
+            prev[next[vertex]] = prev[vertex];
+        }
+        contained[vertex] = false;
+        size--;
+    }
+
+    void update(int vertex, int gain) {
+        if (contained[vertex] && gains[vertex] == gain) {
+            return;
+        }
+        remove(vertex);
+        insert(vertex, gain);
+    }
+
+    // vertex with the highest gain, or -1 when the queue is empty
+    int peekMax() {
+        if (size == 0) {
+            topBucket = NONE;
+            return NONE;
+        }
+        while (heads[topBucket] == NONE) {
+            topBucket--;
+        }
+        return heads[topBucket];
+    }
+
+    void clear() {
+        while (size > 0) {
+            remove(peekMax());
+        }
+        topBucket = NONE;
+    }
+
+    private int bucketOf(int gain) {
+        if (gain > maxGain) {
+            gain = maxGain;
+        } else if (gain < -maxGain) {
+            gain = -maxGain;
+        }
+        return gain + maxGain;
+    }
+}
@@ -0,0 +1,75 @@
+package algorithm;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring of the moves FM applies, written by the refining thread and read
+ * by one observer thread. Publishing never waits and never allocates: a move is
+ * four int writes and an ordered store of the move count, and the oldest moves
+ * are overwritten when the reader falls a whole ring behind. The reader is then
+ * told that moves were lost so it can resynchronise from the partition array.
+ */
+public final class MoveRing {
+    // a move of this vertex marks the start of a refinement: the partition may have
+    // been replaced as a whole and the cut is the one refinement starts from
+    public static final int RESET = -1;
+    public static final int LOST = -1;
+    static final int FIELDS = 4;
+
+    private final int[] slots;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong();
+    private long consumed;
+
+    // capacity is the number of moves kept and must be a power of two
+    public MoveRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.slots = new int[capacity * FIELDS];
+        this.mask = capacity - 1;
+    }
+
+    // refining thread only
+    public void publish(int vertex, int oldPartId, int newPartId, int cut) {
+        long sequence = published.getPlain();
+        // the reader must see the count that marks this slot as reused before its new contents
+        VarHandle.storeStoreFence();
+        int slot = ((int) sequence & mask) * FIELDS;
+        slots[slot] = vertex;
+        slots[slot + 1] = oldPartId;
+        slots[slot + 2] = newPartId;
+        slots[slot + 3] = cut;
+        published.setRelease(sequence + 1);
+    }
+
+    /**
+     * Copies up to maxMoves unread moves into out as (vertex, old part, new part, cut)
+     * quadruples in publish order and returns how many were copied. Returns LOST and
+     * skips to the newest move when some unread moves were overwritten; the caller
+     * then has to take the current state from the partition array. Reader thread only.
+     */
+    public int drain(int[] out, int maxMoves) {
+        long available = published.getAcquire();
+        long capacity = mask + 1L;
+        if (available - consumed > capacity) {
+            consumed = available;
+            return LOST;
+        }
+        int count = (int) Math.min(Math.min(maxMoves, out.length / FIELDS), available - consumed);
+        for (int i = 0; i < count; i++) {
+            int slot = ((int) (consumed + i) & mask) * FIELDS;
+            System.arraycopy(slots, slot, out, i * FIELDS, FIELDS);
+        }
+        VarHandle.acquireFence();
+        // the writer reuses the slot of move s once it has published move s + capacity - 1
+        long now = published.getAcquire();
+        if (now - consumed >= capacity && count > 0) {
+            consumed = now;
+            return LOST;
+        }
+        consumed += count;
+        return count;
+    }
+}
@@ -0,0 +1,269 @@
+package algorithm;
+
+import model.CsrGraph;
+import model.Graph;
+import model.PartitionData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * METIS-style multilevel partitioning: the graph is coarsened by heavy-edge
+ * matching, the coarsest graph is split with {@link RegionGrowing} and balanced
+ * by the merged vertex weights, and the partition is projected back level by
+ * level with weighted FM refinement.
+ */
+public class MultilevelPartitioning {
+    private static final int COARSEST_VERTICES_PER_PART = 20;
+    private static final int MIN_COARSEST_VERTICES = 100;
+    private static final double MIN_REDUCTION = 0.9;
+    private static final int MAX_LEVELS = 40;
+    private static final int MAX_NON_IMPROVING_MOVES = 200;
+
+    /**
+     * One level of the hierarchy. Edge weights are aligned with the CSR targets,
+     * coarseMap maps every vertex of this level to its vertex on the next level.
+     */
+    static class Level {
+        final CsrGraph csr;
+        final int[] edgeWeights;
+        final int[] vertexWeights;
+        int[] coarseMap;
+
+        Level(CsrGraph csr, int[] edgeWeights, int[] vertexWeights) {
+            this.csr = csr;
+            this.edgeWeights = edgeWeights;
+            this.vertexWeights = vertexWeights;
+        }
+    }
+
+    public static boolean multilevelPartitioning(Graph graph, int parts, PartitionData partitionData,
+            float accuracy, int fmIterations) {
+        return multilevelPartitioning(graph, parts, partitionData, accuracy, fmIterations, new Random());
+    }
+
+    public static boolean multilevelPartitioning(Graph graph, int parts, PartitionData partitionData,
+            float accuracy, int fmIterations, Random random) {
+        return multilevelPartitioning(graph, parts, partitionData, accuracy, fmIterations, random, null);
+    }
+
+    // FM passes on every level are reported to the listener, moves only on the
+    // finest level; after a cancel the remaining levels are only projected
+    public static boolean multilevelPartitioning(Graph graph, int parts, PartitionData partitionData,
+            float accuracy, int fmIterations, Random random, ProgressListener listener) {
+        if (graph == null || graph.getVertices() == 0 || parts <= 0 || partitionData == null) {
+            return RegionGrowing.regionGrowing(graph, parts, partitionData, accuracy, random);
+        }
+        int numVertices = graph.getVertices();
+        if (parts > numVertices) {
+            parts = numVertices;
+        }
+        graph.setPartitions(parts);
+        // size limits from the accuracy and the clamped part count, rounded like Graph.setMinCount/setMaxCount
+        // and widened to the neighbouring whole sizes, as region growing does, when no size fits between them
+        float average = (float) numVertices / parts;
+        int minCount = Math.max(1, (int) Math.ceil(average * (1.0f - accuracy)));
+        int maxCount = (int) Math.floor(average * (1.0f + accuracy));
+        if (maxCount < minCount) {
+            minCount = Math.max(1, (int) Math.floor(average * (1.0f - accuracy)));
+            maxCount = Math.max(minCount, (int) Math.ceil(average * (1.0f + accuracy)));
+        }
+        int coarsestSize = Math.max(MIN_COARSEST_VERTICES, parts * COARSEST_VERTICES_PER_PART);
+
+        int[] unitEdgeWeights = new int[graph.getCsr().getTargets().length];
+        Arrays.fill(unitEdgeWeights, 1);
+        int[] unitVertexWeights = new int[numVertices];
+        Arrays.fill(unitVertexWeights, 1);
+
+        List<Level> levels = new ArrayList<>();
+        levels.add(new Level(graph.getCsr(), unitEdgeWeights, unitVertexWeights));
+        int maxVertexWeight = Math.max(1, (int) Math.ceil(1.5 * numVertices / coarsestSize));
+        while (levels.size() < MAX_LEVELS) {
+            Level fine = levels.get(levels.size() - 1);
+            if (fine.csr.getVertices() <= coarsestSize) {
+                break;
+            }
+            Level coarse = coarsen(fine, maxVertexWeight, random);
+            if (coarse.csr.getVertices() > MIN_REDUCTION * fine.csr.getVertices()) {
+                fine.coarseMap = null;
+                break;
+            }
+            levels.add(coarse);
+        }
+
+        Level coarsest = levels.get(levels.size() - 1);
+        int[] partIds = initialPartition(coarsest, parts, accuracy, minCount, maxCount, random);
+
+        for (int l = levels.size() - 1; l >= 1; l--) {
+            Level level = levels.get(l);
+            FmOptimization.refine(level.csr, level.edgeWeights, level.vertexWeights, partIds, parts, minCount,
+                    maxCount, fmIterations, true, MAX_NON_IMPROVING_MOVES, listener, null);
+
+            Level finer = levels.get(l - 1);
+            int[] projected = new int[finer.csr.getVertices()];
+            for (int v = 0; v < projected.length; v++) {
+                projected[v] = partIds[finer.coarseMap[v]];
+            }
+            partIds = projected;
+        }
+
+        // FM only keeps balance, so a split that projection left unbalanced is repaired first
+        RegionGrowing.rebalance(graph.getCsr(), null, partIds, parts, minCount, maxCount);
+        System.arraycopy(partIds, 0, graph.getPartIds(), 0, numVertices);
+        FmOptimization.refine(graph.getCsr(), null, null, graph.getPartIds(), parts, minCount, maxCount,
+                fmIterations, true, MAX_NON_IMPROVING_MOVES, listener,
+                listener != null ? listener.getMoveRing() : null);
+        if (partitionData.getPartsCount() != parts) {
+            partitionData.reset(parts);
+        }
+        partitionData.assignFromPartIds(graph.getPartIds());
+
+        int[] partSizes = new int[parts];
+        for (int partId : graph.getPartIds()) {
+            if (partId >= 0 && partId < parts) {
+                partSizes[partId]++;
+            }
+        }
+        for (int size : partSizes) {
+            if (size < minCount || size > maxCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Heavy-edge matching: every unmatched vertex, in random order, is paired with
+     * the unmatched neighbour connected by the heaviest edge, then matched pairs
+     * are contracted into one coarse vertex.
+     */
+    static Level coarsen(Level fine, int maxVertexWeight, Random random) {
+        int n = fine.csr.getVertices();
+        int[] offsets = fine.csr.getOffsets();
+        int[] targets = fine.csr.getTargets();
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        for (int v : order) {
+            if (match[v] != -1) {
+                continue;
+            }
+            int best = v;
+            int bestWeight = 0;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u != v && match[u] == -1 && fine.edgeWeights[i] > bestWeight
+                        && fine.vertexWeights[v] + fine.vertexWeights[u] <= maxVertexWeight) {
+                    best = u;
+                    bestWeight = fine.edgeWeights[i];
+                }
+            }
+            match[v] = best;
+            match[best] = v;
+        }
+
+        int[] coarseMap = new int[n];
+        int coarseVertices = 0;
+        for (int v = 0; v < n; v++) {
+            if (v <= match[v]) {
+                coarseMap[v] = coarseVertices;
+                coarseMap[match[v]] = coarseVertices;
+                coarseVertices++;
+            }
+        }
+        fine.coarseMap = coarseMap;
+
+        int[] coarseVertexWeights = new int[coarseVertices];
+        for (int v = 0; v < n; v++) {
+            coarseVertexWeights[coarseMap[v]] += fine.vertexWeights[v];
+        }
+
+        // contraction: slot[c] remembers where neighbour c sits in the row being built
+        int[] coarseOffsets = new int[coarseVertices + 1];
+        int[] coarseTargets = new int[targets.length];
+        int[] coarseWeights = new int[targets.length];
+        int[] slot = new int[coarseVertices];
+        Arrays.fill(slot, -1);
+        int size = 0;
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (v > match[v]) {
+                continue;
+            }
+            int rowStart = size;
+            int memberCount = v == match[v] ? 1 : 2;
+            for (int m = 0; m < memberCount; m++) {
+                int member = m == 0 ? v : match[v];
+                for (int i = offsets[member]; i < offsets[member + 1]; i++) {
+                    int target = coarseMap[targets[i]];
+                    if (target == c) {
+                        continue;
+                    }
+                    if (slot[target] == -1) {
+                        slot[target] = size;
+                        coarseTargets[size] = target;
+                        coarseWeights[size] = fine.edgeWeights[i];
+                        size++;
+                    } else {
+                        coarseWeights[slot[target]] += fine.edgeWeights[i];
+                    }
+                }
+            }
+            sortRow(coarseTargets, coarseWeights, rowStart, size);
+            for (int i = rowStart; i < size; i++) {
+                slot[coarseTargets[i]] = -1;
+            }
+            c++;
+            coarseOffsets[c] = size;
+        }
+
+        CsrGraph coarse = new CsrGraph(coarseOffsets, Arrays.copyOf(coarseTargets, size));
+        return new Level(coarse, Arrays.copyOf(coarseWeights, size), coarseVertexWeights);
+    }
+
+    // keeps CSR rows ascending; targets and weights are packed into one long per entry
+    private static void sortRow(int[] targets, int[] weights, int from, int to) {
+        long[] packed = new long[to - from];
+        for (int i = from; i < to; i++) {
+            packed[i - from] = ((long) targets[i] << 32) | (weights[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = from; i < to; i++) {
+            targets[i] = (int) (packed[i - from] >>> 32);
+            weights[i] = (int) packed[i - from];
+        }
+    }
+
+    // region growing balances vertex counts; coarse vertices weigh up to maxVertexWeight, so the
+    // split is then balanced by weight against the size limits of the original graph
+    private static int[] initialPartition(Level coarsest, int parts, float accuracy, int minCount, int maxCount,
+            Random random) {
+        Graph coarseGraph = new Graph(coarsest.csr);
+        int coarseParts = Math.min(parts, coarseGraph.getVertices());
+        coarseGraph.setPartitions(coarseParts);
+        PartitionData coarsePartitionData = new PartitionData(coarseParts);
+        RegionGrowing.regionGrowing(coarseGraph, coarseParts, coarsePartitionData, accuracy, random);
+
+        int[] partIds = Arrays.copyOf(coarseGraph.getPartIds(), coarseGraph.getVertices());
+        for (int v = 0; v < partIds.length; v++) {
+            if (partIds[v] < 0) {
+                partIds[v] = 0;
+            }
+        }
+        RegionGrowing.rebalance(coarsest.csr, coarsest.vertexWeights, partIds, coarseParts, minCount, maxCount);
+        return partIds;
+    }
+}
@@ -0,0 +1,168 @@
+package algorithm;
+
+import model.Graph;
+import model.PartitionData;
+import utils.Stats;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Runs one of the partitioning algorithms followed by FM refinement. Shared by the
+ * GUI and the headless runners so every front end partitions the same way.
+ * The algorithms keep no static state and only modify the graph and partition data
+ * they are given, so different graphs may be partitioned on different threads.
+ */
+public class PartitioningPipeline {
+    public static final int DEFAULT_FM_ITERATIONS = 100;
+    private static final int BOUNDARY_FM_MAX_NON_IMPROVING_MOVES = 200;
+    // odd 64-bit golden ratio constant, spreads the attempt seeds apart
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    public enum Algorithm {
+        REGION_GROWING("rg"),
+        PARALLEL_REGION_GROWING("parallel-rg"),
+        MULTILEVEL("multilevel");
+
+        private final String optionName;
+
+        Algorithm(String optionName) {
+            this.optionName = optionName;
+        }
+
+        public String getOptionName() {
+            return optionName;
+        }
+
+        public static Algorithm fromOptionName(String name) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.optionName.equalsIgnoreCase(name)) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("Unknown algorithm: " + name);
+        }
+    }
+
+    public static boolean partition(Graph graph, int parts, PartitionData partitionData, float accuracy,
+            Algorithm algorithm, int fmIterations, boolean boundaryFm, Random random) {
+        return partition(graph, parts, partitionData, accuracy, algorithm, fmIterations, boundaryFm, random, null);
+    }
+
+    /**
+     * Partitions the graph in place. The graph's min/max counts must already be set
+     * for the requested accuracy. Returns false when the balance criteria are not met.
+     * When stats is not null the grow and refine phases are timed into it; multilevel
+     * interleaves both and is reported as a single grow phase.
+     */
+    public static boolean partition(Graph graph, int parts, PartitionData partitionData, float accuracy,
+            Algorithm algorithm, int fmIterations, boolean boundaryFm, Random random, Stats stats) {
+        return partition(graph, parts, partitionData, accuracy, algorithm, fmIterations, boundaryFm, random, stats,
+                null);
+    }
+
+    /**
+     * As above, reporting the start of each phase and every FM pass to the listener.
+     * A cancelled run stops refining between FM passes and still returns a complete
+     * partition; the listener may be null.
+     */
+    public static boolean partition(Graph graph, int parts, PartitionData partitionData, float accuracy,
+            Algorithm algorithm, int fmIterations, boolean boundaryFm, Random random, Stats stats,
+            ProgressListener listener) {
+        long phaseStart = System.nanoTime();
+        phaseStarted(listener, Stats.Phase.GROW);
+        if (algorithm == Algorithm.MULTILEVEL) {
+            // multilevel refines on every level and finishes with a boundary FM pass itself
+            boolean balanced = MultilevelPartitioning.multilevelPartitioning(graph, parts, partitionData, accuracy,
+                    fmIterations, random, listener);
+            recordPhase(stats, Stats.Phase.GROW, phaseStart);
+            return balanced;
+        }
+
+        boolean balanced = algorithm == Algorithm.PARALLEL_REGION_GROWING
+                ? RegionGrowing.parallelRegionGrowing(graph, parts, partitionData, accuracy, random)
+                : RegionGrowing.regionGrowing(graph, parts, partitionData, accuracy, random);
+        recordPhase(stats, Stats.Phase.GROW, phaseStart);
+        phaseStart = System.nanoTime();
+        phaseStarted(listener, Stats.Phase.REFINE);
+        if (boundaryFm) {
+            FmOptimization.cutEdgesOptimization(graph, partitionData, fmIterations, true,
+                    BOUNDARY_FM_MAX_NON_IMPROVING_MOVES, listener);
+        } else {
+            FmOptimization.cutEdgesOptimization(graph, partitionData, fmIterations, false, 0, listener);
+        }
+        recordPhase(stats, Stats.Phase.REFINE, phaseStart);
+        return balanced;
+    }
+
+    /**
+     * Runs starts independent attempts of {@link #partition} in parallel, each on its
+     * own copy of the graph's partition array, and keeps the best one: balanced
+     * attempts first, then the lowest cut, then the lowest attempt number. Attempt i
+     * uses a Random derived from the seed and i, attempt 0 exactly new Random(seed),
+     * so a single start matches a seeded sequential run. Phase times in stats are
+     * summed over all attempts.
+     */
+    public static boolean partitionMultiStart(Graph graph, int parts, PartitionData partitionData, float accuracy,
+            Algorithm algorithm, int fmIterations, boolean boundaryFm, long seed, int starts, Stats stats) {
+        if (starts <= 1) {
+            return partition(graph, parts, partitionData, accuracy, algorithm, fmIterations, boundaryFm,
+                    new Random(seed), stats);
+        }
+        Attempt[] attempts = IntStream.range(0, starts).parallel()
+                .mapToObj(i -> runAttempt(graph, parts, accuracy, algorithm, fmIterations, boundaryFm,
+                        seed + i * SEED_INCREMENT))
+                .toArray(Attempt[]::new);
+
+        Attempt best = attempts[0];
+        for (Attempt attempt : attempts) {
+            if (stats != null) {
+                for (Stats.Phase phase : Stats.Phase.values()) {
+                    stats.addPhaseTime(phase, attempt.stats.getPhaseNanos(phase));
+                }
+            }
+            if (attempt.balanced != best.balanced ? attempt.balanced : attempt.cut < best.cut) {
+                best = attempt;
+            }
+        }
+        System.arraycopy(best.partIds, 0, graph.getPartIds(), 0, best.partIds.length);
+        if (partitionData.getPartsCount() != best.parts) {
+            partitionData.reset(best.parts);
+        }
+        partitionData.assignFromPartIds(graph.getPartIds());
+        return best.balanced;
+    }
+
+    private static Attempt runAttempt(Graph graph, int parts, float accuracy, Algorithm algorithm, int fmIterations,
+            boolean boundaryFm, long seed) {
+        Graph copy = graph.copyUnassigned();
+        PartitionData partitionData = new PartitionData(parts);
+        Attempt attempt = new Attempt();
+        attempt.balanced = partition(copy, parts, partitionData, accuracy, algorithm, fmIterations, boundaryFm,
+                new Random(seed), attempt.stats);
+        attempt.partIds = copy.getPartIds();
+        attempt.parts = partitionData.getPartsCount();
+        attempt.cut = FmOptimization.countCutEdges(copy);
+        return attempt;
+    }
+
+    private static final class Attempt {
+        private final Stats stats = new Stats();
+        private int[] partIds;
+        private int parts;
+        private int cut;
+        private boolean balanced;
+    }
+
+    private static void phaseStarted(ProgressListener listener, Stats.Phase phase) {
+        if (listener != null) {
+            listener.phaseStarted(phase);
+        }
+    }
+
+    private static void recordPhase(Stats stats, Stats.Phase phase, long phaseStart) {
+        if (stats != null) {
+            stats.addPhaseTime(phase, System.nanoTime() - phaseStart);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package algorithm;
+
+import utils.Stats;
+
+/**
+ * Progress callbacks of a partitioning run, called on the thread that runs it.
+ * Cancellation is cooperative: FM checks isCancelled before every pass and stops
+ * with the partition of the last completed pass, which is the best one found so
+ * far. Region growing and coarsening always run to completion.
+ */
+public interface ProgressListener {
+    default void phaseStarted(Stats.Phase phase) {
+    }
+
+    // pass counts from 1; maxPasses is an upper bound, FM usually converges earlier
+    default void passCompleted(int pass, int maxPasses, int cut) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    // ring that receives the moves FM applies to the graph's vertices, or null
+    default MoveRing getMoveRing() {
+        return null;
+    }
+}
@@ -1,48 +1,69 @@
 package algorithm;
 
+import model.CsrGraph;
 import model.Graph;
-import model.Node;
 import model.PartitionData;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 public class RegionGrowing {
+    private static final int PARALLEL_ROUNDS = 64;
+
+    /**
+     * Growable ring buffer of vertex ids used as a BFS frontier. Unlike a
+     * List&lt;Integer&gt; popped with remove(0) it neither shifts nor boxes.
+     */
     private static class Queue {
         private int[] items;
         private int front;
-        private int rear;
-        private int maxSize;
+        private int size;
 
-        public Queue(int maxSize) {
-            this.maxSize = maxSize;
-            this.items = new int[maxSize];
+        public Queue(int initialCapacity) {
+            this.items = new int[Math.max(4, initialCapacity)];
             this.front = 0;
-            this.rear = 0;
+            this.size = 0;
         }
 
         public boolean isEmpty() {
-            return front == rear;
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
         }
 
         public void addToQueue(int item) {
-            if (rear < maxSize) {
-                items[rear++] = item;
-            } else {
-                System.err.println("Queue is full");
+            if (size == items.length) {
+                int[] grown = new int[items.length * 2];
+                int firstPart = Math.min(size, items.length - front);
+                System.arraycopy(items, front, grown, 0, firstPart);
+                System.arraycopy(items, 0, grown, firstPart, size - firstPart);
+                items = grown;
+                front = 0;
             }
+            items[(front + size) % items.length] = item;
+            size++;
         }
 
-        public void removeFromQueue() {
-            if (!isEmpty()) {
-                front++;
-            } else {
-                System.err.println("Queue is empty");
+        public int peek() {
+            if (isEmpty()) {
+                throw new NoSuchElementException("Queue is empty");
             }
+            return items[front];
+        }
+
+        public int removeFromQueue() {
+            int item = peek();
+            front = (front + 1) % items.length;
+            size--;
+            return item;
         }
     }
 
-    private static int[] generateSeedPoints(Graph graph, int parts) {
-        Random random = new Random();
+    private static int[] generateSeedPoints(Graph graph, int parts, Random random) {
         int[] seedPoints = new int[parts];
         Arrays.fill(seedPoints, -1);
 
@@ -61,6 +82,7 @@ public class RegionGrowing {
         }
 
         Set<Integer> chosenSeeds = new HashSet<>();
+        CsrGraph csr = graph.getCsr();
 
         for (int i = 0; i < parts; i++) {
             if (chosenSeeds.size() >= graph.getVertices())
@@ -88,28 +110,13 @@ public class RegionGrowing {
                     attempts = 0;
 
                     int connections = 0;
-                    Node candidateNode = graph.getNode(candidate);
-                    if (candidateNode == null)
-                        continue;
-
                     for (int k = 0; k < i; k++) {
                         if (seedPoints[k] == -1)
                             continue;
-                        Node seedNode = graph.getNode(seedPoints[k]);
-                        if (seedNode == null)
-                            continue;
-                        for (Node neighbor : candidateNode.getNeighbours()) {
-                            if (neighbor.getId() == seedPoints[k]) {
-                                connections++;
-                                break;
-                            }
-                        }
-                        for (Node neighborOfSeed : seedNode.getNeighbours()) {
-                            if (neighborOfSeed.getId() == candidate) {
-                                connections++;
-                                break;
-                            }
-                        }
+                        if (hasNeighbour(csr, candidate, seedPoints[k]))
+                            connections++;
+                        if (hasNeighbour(csr, seedPoints[k], candidate))
+                            connections++;
                     }
 
                     if (connections < minConnections) {
@@ -132,18 +139,32 @@ public class RegionGrowing {
             if (bestVertex != -1) {
                 seedPoints[i] = bestVertex;
                 chosenSeeds.add(bestVertex);
-            } else {
             }
         }
         return seedPoints;
     }
 
+    private static boolean hasNeighbour(CsrGraph csr, int vertex, int neighbour) {
+        int[] targets = csr.getTargets();
+        for (int e = csr.getOffsets()[vertex]; e < csr.getOffsets()[vertex + 1]; e++) {
+            if (targets[e] == neighbour)
+                return true;
+        }
+        return false;
+    }
+
     public static boolean regionGrowing(Graph graph, int parts, PartitionData partitionData, float accuracy) {
+        return regionGrowing(graph, parts, partitionData, accuracy, new Random());
+    }
+
+    // seed vertices are drawn from the given random, so a seeded Random gives a repeatable partition
+    public static boolean regionGrowing(Graph graph, int parts, PartitionData partitionData, float accuracy,
+            Random random) {
         if (graph == null || graph.getVertices() == 0) {
             if (partitionData != null && parts > 0 && partitionData.getPartsCount() >= parts) {
                 for (int i = 0; i < parts; ++i) {
                     if (i < partitionData.getPartitions().size())
-                        partitionData.getPartitions().get(i).getPartitionNodes().clear();
+                        partitionData.getPartitions().get(i).clear();
                 }
             }
             return true;
@@ -160,26 +181,27 @@ public class RegionGrowing {
         if (partitionData == null) {
             partitionData = new PartitionData(parts);
         } else if (partitionData.getPartsCount() != parts) {
-            partitionData.setPartsCount(parts);
-            partitionData.getPartitions().clear();
-            for (int i = 0; i < parts; ++i)
-                partitionData.getPartitions().add(new model.Partition(i, 0, new ArrayList<>()));
+            partitionData.reset(parts);
         } else {
             for (model.Partition p : partitionData.getPartitions()) {
-                p.getPartitionNodes().clear();
-                p.setPartitionVertexCount(0);
+                p.clear();
             }
         }
 
-        for (Node node : graph.getNodes()) {
-            node.setPartId(-1);
-        }
+        int[] partIds = graph.getPartIds();
+        Arrays.fill(partIds, -1);
 
-        int[] seedPoints = generateSeedPoints(graph, parts);
+        CsrGraph csr = graph.getCsr();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        int[] seedPoints = generateSeedPoints(graph, parts, random);
         boolean[] visited = new boolean[numVertices];
-        List<List<Integer>> frontiers = new ArrayList<>(parts);
+        List<Queue> frontiers = new ArrayList<>(parts);
+        List<BitSet> inFrontier = new ArrayList<>(parts);
         for (int i = 0; i < parts; i++) {
-            frontiers.add(new ArrayList<>());
+            frontiers.add(new Queue(16));
+            inFrontier.add(new BitSet());
         }
 
         int[] partCounts = new int[parts];
@@ -187,14 +209,14 @@ public class RegionGrowing {
         for (int i = 0; i < parts; i++) {
             if (seedPoints[i] != -1 && seedPoints[i] < numVertices) {
                 visited[seedPoints[i]] = true;
-                graph.getNode(seedPoints[i]).setPartId(i);
+                partIds[seedPoints[i]] = i;
                 partitionData.addVertexToPartition(i, seedPoints[i]);
                 partCounts[i] = partitionData.getPartitions().get(i).getPartitionVertexCount();
 
-                Node seedNode = graph.getNode(seedPoints[i]);
-                for (Node neighbor : seedNode.getNeighbours()) {
-                    if (neighbor.getId() < numVertices && !visited[neighbor.getId()]) {
-                        frontiers.get(i).add(neighbor.getId());
+                for (int e = offsets[seedPoints[i]]; e < offsets[seedPoints[i] + 1]; e++) {
+                    if (!visited[targets[e]] && !inFrontier.get(i).get(targets[e])) {
+                        inFrontier.get(i).set(targets[e]);
+                        frontiers.get(i).addToQueue(targets[e]);
                     }
                 }
             }
@@ -237,46 +259,38 @@ public class RegionGrowing {
             if (bestPartIdxToGrow == -1)
                 break;
 
-            List<Integer> currentFrontier = frontiers.get(bestPartIdxToGrow);
-            Integer vertexToAssignId = null;
+            Queue currentFrontier = frontiers.get(bestPartIdxToGrow);
+            int vertexToAssignId = -1;
 
-            int originalFrontierSize = currentFrontier.size();
-            for (int k = 0; k < originalFrontierSize; ++k) {
-                Integer currentId = currentFrontier.get(0);
-                if (visited[currentId]) {
-                    currentFrontier.remove(0);
-                } else {
-                    vertexToAssignId = currentFrontier.remove(0);
+            while (!currentFrontier.isEmpty()) {
+                int currentId = currentFrontier.removeFromQueue();
+                if (!visited[currentId]) {
+                    vertexToAssignId = currentId;
                     break;
                 }
             }
 
-            if (vertexToAssignId != null) {
+            if (vertexToAssignId != -1) {
                 visited[vertexToAssignId] = true;
-                graph.getNode(vertexToAssignId).setPartId(bestPartIdxToGrow);
+                partIds[vertexToAssignId] = bestPartIdxToGrow;
                 partitionData.addVertexToPartition(bestPartIdxToGrow, vertexToAssignId);
                 partCounts[bestPartIdxToGrow]++;
                 unassigned--;
 
-                Node assignedNode = graph.getNode(vertexToAssignId);
-                for (Node neighbor : assignedNode.getNeighbours()) {
-                    if (neighbor.getId() < numVertices && !visited[neighbor.getId()]) {
-                        frontiers.get(bestPartIdxToGrow).add(neighbor.getId());
+                BitSet enqueued = inFrontier.get(bestPartIdxToGrow);
+                for (int e = offsets[vertexToAssignId]; e < offsets[vertexToAssignId + 1]; e++) {
+                    if (!visited[targets[e]] && !enqueued.get(targets[e])) {
+                        enqueued.set(targets[e]);
+                        currentFrontier.addToQueue(targets[e]);
                     }
                 }
             }
             iterations++;
         }
 
-        boolean allPartitionsMeetMinSize = true;
-        for (int i = 0; i < parts; i++) {
-            if (partCounts[i] < minVerticesPerPart && numVertices > 0 && seedPoints[i] != -1) {
-                allPartitionsMeetMinSize = false;
-            }
-        }
         if (unassigned > 0 && numVertices > 0) {
             for (int i = 0; i < numVertices; ++i) {
-                if (graph.getNode(i).getPartId() == -1) {
+                if (partIds[i] == -1) {
                     int smallestPart = -1;
                     int smallestSize = Integer.MAX_VALUE;
                     for (int p = 0; p < parts; ++p) {
@@ -287,7 +301,7 @@ public class RegionGrowing {
                         }
                     }
                     if (smallestPart != -1) {
-                        graph.getNode(i).setPartId(smallestPart);
+                        partIds[i] = smallestPart;
                         partitionData.addVertexToPartition(smallestPart, i);
                         partCounts[smallestPart]++;
                         unassigned--;
@@ -296,45 +310,332 @@ public class RegionGrowing {
             }
         }
 
-        for (int i = 0; i < parts; ++i) {
-            if (seedPoints[i] != -1 && !isPartitionConnected(graph, i, partitionData)) {
+        // a partition enclosed by its neighbours stops growing below the minimum size
+        long[] sizes = rebalance(csr, null, partIds, parts, minVerticesPerPart, finalMaxVerticesPerPart);
+        partitionData.assignFromPartIds(partIds);
+        return withinLimits(sizes, minVerticesPerPart, finalMaxVerticesPerPart) && unassigned == 0;
+    }
+
+    /**
+     * Moves boundary vertices out of partitions heavier than maxWeight and into
+     * partitions lighter than minWeight. A vertex first only moves to its lightest
+     * neighbouring partition when that narrows the weight gap between the two; when
+     * no such move is left, one vertex is shifted along the shortest chain of
+     * neighbouring partitions instead. Vertex weights may be null for unit weights.
+     * Returns the partition weights, which callers check against the limits.
+     */
+    static long[] rebalance(CsrGraph csr, int[] vertexWeights, int[] partIds, int parts, int minWeight,
+            int maxWeight) {
+        int numVertices = csr.getVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        long[] weights = new long[parts];
+        for (int v = 0; v < numVertices; v++) {
+            if (partIds[v] >= 0 && partIds[v] < parts) {
+                weights[partIds[v]] += vertexWeights == null ? 1 : vertexWeights[v];
+            }
+        }
+
+        int chainShifts = 0;
+        while (!withinLimits(weights, minWeight, maxWeight)) {
+            boolean moved = false;
+            for (int v = 0; v < numVertices; v++) {
+                int from = partIds[v];
+                if (from < 0 || from >= parts) {
+                    continue;
+                }
+                int to = -1;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int p = partIds[targets[e]];
+                    if (p >= 0 && p < parts && p != from && (to == -1 || weights[p] < weights[to])) {
+                        to = p;
+                    }
+                }
+                int weight = vertexWeights == null ? 1 : vertexWeights[v];
+                if (to != -1 && (weights[from] > maxWeight || weights[to] < minWeight)
+                        && weights[to] + weight < weights[from]) {
+                    partIds[v] = to;
+                    weights[from] -= weight;
+                    weights[to] += weight;
+                    moved = true;
+                }
+            }
+            // with weighted vertices a chain shift need not narrow the gaps, so it is capped
+            if (!moved && (chainShifts++ >= numVertices
+                    || !shiftAlongChain(csr, vertexWeights, partIds, parts, weights, minWeight, maxWeight))) {
+                break;
             }
         }
-        return allPartitionsMeetMinSize && unassigned == 0;
+        return weights;
     }
 
-    private static boolean isPartitionConnected(Graph graph, int partId, PartitionData pd) {
-        if (graph == null || pd == null || partId < 0 || partId >= pd.getPartsCount())
-            return true;
+    /**
+     * Finds the partition nearest to one outside the limits, over partitions that
+     * share an edge, that can give (or take) a vertex, and moves one boundary
+     * vertex across every link of that chain. The partitions in between keep their
+     * size. Returns false when no such chain exists.
+     */
+    private static boolean shiftAlongChain(CsrGraph csr, int[] vertexWeights, int[] partIds, int parts,
+            long[] weights, int minWeight, int maxWeight) {
+        int start = -1;
+        boolean underweight = false;
+        for (int p = 0; p < parts && start == -1; p++) {
+            if (weights[p] < minWeight) {
+                start = p;
+                underweight = true;
+            }
+        }
+        for (int p = 0; p < parts && start == -1; p++) {
+            if (weights[p] > maxWeight) {
+                start = p;
+            }
+        }
+        if (start == -1) {
+            return false;
+        }
 
-        List<Integer> nodeIdsInPartition = pd.getPartitions().get(partId).getPartitionNodes();
-        if (nodeIdsInPartition.isEmpty() || nodeIdsInPartition.size() == 1)
-            return true;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] parent = new int[parts];
+        int[] depth = new int[parts];
+        Arrays.fill(parent, -1);
+        parent[start] = start;
+        int end = -1;
+        // one scan over all edges per chain length; chains are only searched when diffusion is stuck
+        for (int level = 0; end == -1; level++) {
+            boolean reached = false;
+            for (int v = 0; v < csr.getVertices() && end == -1; v++) {
+                int a = partIds[v];
+                if (a < 0 || a >= parts || parent[a] == -1 || depth[a] != level) {
+                    continue;
+                }
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int b = partIds[targets[e]];
+                    if (b >= 0 && b < parts && parent[b] == -1) {
+                        parent[b] = a;
+                        depth[b] = level + 1;
+                        reached = true;
+                        if (underweight ? weights[b] > minWeight : weights[b] < maxWeight) {
+                            end = b;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (!reached) {
+                return false;
+            }
+        }
+
+        for (int p = end; p != start; p = parent[p]) {
+            int from = underweight ? p : parent[p];
+            int to = underweight ? parent[p] : p;
+            int vertex = -1;
+            int bestGain = Integer.MIN_VALUE;
+            for (int v = 0; v < csr.getVertices(); v++) {
+                if (partIds[v] != from) {
+                    continue;
+                }
+                int gain = 0;
+                boolean touches = false;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int q = partIds[targets[e]];
+                    if (q == to) {
+                        gain++;
+                        touches = true;
+                    } else if (q == from) {
+                        gain--;
+                    }
+                }
+                if (touches && gain > bestGain) {
+                    bestGain = gain;
+                    vertex = v;
+                }
+            }
+            if (vertex == -1) {
+                return false;
+            }
+            int weight = vertexWeights == null ? 1 : vertexWeights[vertex];
+            partIds[vertex] = to;
+            weights[from] -= weight;
+            weights[to] += weight;
+        }
+        return true;
+    }
+
+    static boolean withinLimits(long[] weights, int minWeight, int maxWeight) {
+        for (long weight : weights) {
+            if (weight < minWeight || weight > maxWeight) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Per-partition growth state for the parallel mode. Only the task that owns a
+     * partition touches its state, so the arrays need no synchronisation.
+     */
+    private static class GrowthState {
+        private final Queue frontier = new Queue(16);
+        private int[] proposals = new int[16];
+        private int proposed;
+        private int size;
+    }
+
+    /**
+     * Parallel variant of {@link #regionGrowing}: in every round each partition
+     * concurrently proposes the unowned neighbours of its BFS frontier, then every
+     * proposed vertex goes to the lowest partition id that proposed it. Proposals
+     * only read the owners as they were when the round started, so the result does
+     * not depend on thread timing and a seeded Random gives a repeatable partition.
+     * The per-round quota keeps the partitions growing at the same pace and never
+     * lets one exceed the maximum size.
+     */
+    public static boolean parallelRegionGrowing(Graph graph, int parts, PartitionData partitionData,
+            float accuracy) {
+        return parallelRegionGrowing(graph, parts, partitionData, accuracy, new Random());
+    }
+
+    public static boolean parallelRegionGrowing(Graph graph, int parts, PartitionData partitionData,
+            float accuracy, Random random) {
+        if (graph == null || graph.getVertices() == 0 || parts <= 0 || partitionData == null) {
+            return regionGrowing(graph, parts, partitionData, accuracy, random);
+        }
+        int numVertices = graph.getVertices();
+        if (parts > numVertices) {
+            parts = numVertices;
+        }
+        if (partitionData.getPartsCount() != parts) {
+            partitionData.reset(parts);
+        }
 
-        Set<Integer> visitedNodes = new HashSet<>();
-        java.util.Queue<Integer> q = new java.util.ArrayDeque<>();
+        CsrGraph csr = graph.getCsr();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
 
-        q.offer(nodeIdsInPartition.get(0));
-        visitedNodes.add(nodeIdsInPartition.get(0));
+        float avgVerticesPerPart = (float) numVertices / parts;
+        int minVerticesPerPart = Math.max(1, (int) Math.floor(avgVerticesPerPart * (1.0f - accuracy)));
+        int maxVerticesPerPart = Math.max(minVerticesPerPart,
+                (int) Math.ceil(avgVerticesPerPart * (1.0f + accuracy)));
+        int roundQuota = Math.max(1, (int) (avgVerticesPerPart / PARALLEL_ROUNDS));
+
+        // owners is only written between the phases of a round; winners[v] is the lowest
+        // partition that proposed v, and is read only for vertices proposed this round
+        int[] owners = new int[numVertices];
+        Arrays.fill(owners, -1);
+        AtomicIntegerArray winners = new AtomicIntegerArray(numVertices);
+
+        int[] seedPoints = generateSeedPoints(graph, parts, random);
+        GrowthState[] states = new GrowthState[parts];
+        for (int p = 0; p < parts; p++) {
+            states[p] = new GrowthState();
+            if (seedPoints[p] != -1 && owners[seedPoints[p]] == -1) {
+                owners[seedPoints[p]] = p;
+                states[p].frontier.addToQueue(seedPoints[p]);
+                states[p].size = 1;
+            }
+        }
 
-        while (!q.isEmpty()) {
-            int currentId = q.poll();
-            Node currentNode = graph.getNode(currentId);
-            if (currentNode == null)
-                continue;
+        final int partsCount = parts;
+        boolean progress = true;
+        while (progress) {
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, partsCount).parallel().forEach(p -> {
+                int quota = Math.min(roundQuota, maxVerticesPerPart - states[p].size);
+                propose(states[p], owners, offsets, targets, quota);
+                for (int i = 0; i < states[p].proposed; i++) {
+                    winners.set(states[p].proposals[i], Integer.MAX_VALUE);
+                }
+            })).join();
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, partsCount).parallel().forEach(p -> {
+                for (int i = 0; i < states[p].proposed; i++) {
+                    winners.accumulateAndGet(states[p].proposals[i], p, Math::min);
+                }
+            })).join();
+            int[] claimed = new int[partsCount];
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, partsCount).parallel()
+                    .forEach(p -> claimed[p] = claimWon(states[p], p, owners, winners))).join();
+            progress = false;
+            for (int p = 0; p < partsCount; p++) {
+                if (claimed[p] > 0) {
+                    progress = true;
+                }
+            }
+        }
 
-            for (Node neighborStub : currentNode.getNeighbours()) {
-                Node actualNeighbor = graph.getNode(neighborStub.getId());
-                if (actualNeighbor == null)
+        int[] partIds = graph.getPartIds();
+        int unassigned = 0;
+        for (int v = 0; v < numVertices; v++) {
+            partIds[v] = owners[v];
+            if (partIds[v] == -1) {
+                unassigned++;
+            }
+        }
+        if (unassigned > 0) {
+            for (int v = 0; v < numVertices; v++) {
+                if (partIds[v] != -1) {
                     continue;
+                }
+                int smallestPart = -1;
+                for (int p = 0; p < partsCount; p++) {
+                    if (states[p].size < maxVerticesPerPart
+                            && (smallestPart == -1 || states[p].size < states[smallestPart].size)) {
+                        smallestPart = p;
+                    }
+                }
+                if (smallestPart != -1) {
+                    partIds[v] = smallestPart;
+                    states[smallestPart].size++;
+                    unassigned--;
+                }
+            }
+        }
 
-                if (actualNeighbor.getPartId() == partId && nodeIdsInPartition.contains(actualNeighbor.getId())
-                        && !visitedNodes.contains(actualNeighbor.getId())) {
-                    visitedNodes.add(actualNeighbor.getId());
-                    q.offer(actualNeighbor.getId());
+        long[] sizes = rebalance(csr, null, partIds, partsCount, minVerticesPerPart, maxVerticesPerPart);
+        partitionData.assignFromPartIds(partIds);
+        return withinLimits(sizes, minVerticesPerPart, maxVerticesPerPart) && unassigned == 0;
+    }
+
+    // collects up to quota unowned frontier neighbours, reading the owners only
+    private static void propose(GrowthState state, int[] owners, int[] offsets, int[] targets, int quota) {
+        state.proposed = 0;
+        // a vertex whose neighbours did not all fit is scanned again next round
+        while (state.proposed < quota && !state.frontier.isEmpty()) {
+            int vertex = state.frontier.peek();
+            boolean exhausted = true;
+            for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+                int neighbour = targets[e];
+                if (owners[neighbour] == -1) {
+                    if (state.proposed == quota) {
+                        exhausted = false;
+                        break;
+                    }
+                    if (state.proposed == state.proposals.length) {
+                        state.proposals = Arrays.copyOf(state.proposals, state.proposals.length * 2);
+                    }
+                    state.proposals[state.proposed++] = neighbour;
                 }
             }
+            if (!exhausted) {
+                break;
+            }
+            state.frontier.removeFromQueue();
+        }
+    }
+
+    // takes the proposed vertices partition p won; returns how many were claimed
+    private static int claimWon(GrowthState state, int p, int[] owners, AtomicIntegerArray winners) {
+        int claimed = 0;
+        for (int i = 0; i < state.proposed; i++) {
+            int vertex = state.proposals[i];
+            // a vertex proposed twice by the same partition is claimed once
+            if (winners.get(vertex) == p && owners[vertex] == -1) {
+                owners[vertex] = p;
+                state.frontier.addToQueue(vertex);
+                claimed++;
+            }
         }
-        return visitedNodes.size() == nodeIdsInPartition.size();
+        state.size += claimed;
+        return claimed;
     }
 }
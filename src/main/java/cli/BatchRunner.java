@@ -0,0 +1,231 @@
+package cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Partitions every graph of a directory or manifest on a fixed size thread pool and
+ * writes one summary CSV row per graph. Each job loads its own Graph and
+ * PartitionData, so the algorithms never share state between threads.
+ */
+public class BatchRunner {
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar " + CommandLineRunner.jarName()
+                    + " batch --input <dir|manifest> --parts <k> [options]",
+            "  --input <dir|manifest>  directory of .csrrg/.bin/.csrrgbin graphs, or a text file",
+            "                          listing one graph path per line (# starts a comment)",
+            "  --threads <n>           concurrent graphs (default: available processors)",
+            "  --output-dir <dir>      where partitioned graphs go (default: next to each input)",
+            "  --summary <file>        summary CSV (default: batch-summary.csv)",
+            "  --stats-dir <dir>       also write <name>.stats.json with quality and timings per graph",
+            "  plus --parts, --accuracy, --fm-iterations, --fm-mode, --algorithm, --format, --seed,",
+            "  --starts as for a single graph");
+    private static final String CSV_HEADER = "file,vertices,edges,parts,load_ms,partition_ms,write_ms,"
+            + "cut_edges,imbalance,balanced,status";
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long start = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outputDir = null;
+        String summary = "batch-summary.csv";
+        String statsDir = null;
+        CommandLineRunner.Options options;
+        List<Path> inputs;
+        try {
+            List<String> rest = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ((arg.equals("--threads") || arg.equals("--output-dir") || arg.equals("--summary")
+                        || arg.equals("--stats-dir")) && i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                if (arg.equals("--threads")) {
+                    String value = args[++i];
+                    try {
+                        threads = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid value for --threads: " + value);
+                    }
+                    if (threads <= 0) {
+                        throw new IllegalArgumentException("--threads must be positive");
+                    }
+                } else if (arg.equals("--output-dir")) {
+                    outputDir = args[++i];
+                } else if (arg.equals("--summary")) {
+                    summary = args[++i];
+                } else if (arg.equals("--stats-dir")) {
+                    statsDir = args[++i];
+                } else {
+                    rest.add(arg);
+                }
+            }
+            options = CommandLineRunner.Options.parse(rest.toArray(new String[0]));
+            if (options == null) {
+                System.out.println(USAGE);
+                return 0;
+            }
+            if (options.statsOutput != null) {
+                throw new IllegalArgumentException("Use --stats-dir for per graph statistics in batch mode");
+            }
+            inputs = listInputs(Paths.get(options.input));
+            if (statsDir != null) {
+                Files.createDirectories(Paths.get(statsDir));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        System.out.println("Partitioning " + inputs.size() + " graphs on " + threads + " threads.");
+        // a.bin and a.csrrg map to the same output names; only the first of them is run
+        List<Future<CommandLineRunner.Result>> futures = new ArrayList<>(inputs.size());
+        List<String> clashes = new ArrayList<>(inputs.size());
+        Map<Path, Path> claimedBy = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Path input : inputs) {
+                Path output = outputPath(input, outputDir, options.binary).toAbsolutePath().normalize();
+                Path stats = statsDir == null ? null
+                        : Paths.get(statsDir).resolve(baseName(input) + ".stats.json").toAbsolutePath().normalize();
+                Path clash = claimedBy.containsKey(output) ? output
+                        : stats != null && claimedBy.containsKey(stats) ? stats : null;
+                if (clash != null) {
+                    futures.add(null);
+                    clashes.add(clash + " is also written for " + claimedBy.get(clash));
+                    continue;
+                }
+                claimedBy.put(output, input);
+                CommandLineRunner.Options job = options.withFiles(input.toString(), output.toString());
+                if (stats != null) {
+                    claimedBy.put(stats, input);
+                    job.statsOutput = stats.toString();
+                }
+                futures.add(executor.submit(() -> CommandLineRunner.runJob(job)));
+                clashes.add(null);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int failures = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(summary))) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (int i = 0; i < inputs.size(); i++) {
+                String row;
+                if (futures.get(i) == null) {
+                    failures++;
+                    writer.write(failedRow(inputs.get(i), options.parts, clashes.get(i)));
+                    writer.newLine();
+                    continue;
+                }
+                try {
+                    CommandLineRunner.Result result = futures.get(i).get();
+                    row = result == null ? failedRow(inputs.get(i), options.parts, "too many parts")
+                            : resultRow(inputs.get(i), options.parts, result);
+                    if (result == null) {
+                        failures++;
+                    }
+                } catch (ExecutionException e) {
+                    failures++;
+                    row = failedRow(inputs.get(i), options.parts, String.valueOf(e.getCause()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Batch interrupted.");
+                    return 1;
+                }
+                writer.write(row);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing summary " + summary + ": " + e.getMessage());
+            return 1;
+        }
+
+        System.out.println("Batch finished: " + (inputs.size() - failures) + " of " + inputs.size()
+                + " graphs partitioned in " + (System.nanoTime() - start) / 1_000_000 + " ms, peak RSS "
+                + CommandLineRunner.formatPeakRss() + ". Summary written to " + summary);
+        return failures == 0 ? 0 : 1;
+    }
+
+    // a directory is scanned for graph files; any other file is read as a manifest
+    static List<Path> listInputs(Path input) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        if (Files.isDirectory(input)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(input)) {
+                for (Path path : stream) {
+                    String name = path.getFileName().toString().toLowerCase();
+                    boolean graphFile = name.endsWith(".csrrg") || name.endsWith(".bin") || name.endsWith(".csrrgbin");
+                    if (graphFile && !name.contains(".out.") && Files.isRegularFile(path)) {
+                        inputs.add(path);
+                    }
+                }
+            }
+            Collections.sort(inputs);
+        } else {
+            Path base = input.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(input)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Path path = Paths.get(line);
+                inputs.add(path.isAbsolute() || base == null ? path : base.resolve(path));
+            }
+        }
+        return inputs;
+    }
+
+    private static Path outputPath(Path input, String outputDir, boolean binary) {
+        String name = baseName(input) + (binary ? ".out.bin" : ".out.csrrg");
+        Path dir = outputDir != null ? Paths.get(outputDir) : input.toAbsolutePath().getParent();
+        return dir == null ? Paths.get(name) : dir.resolve(name);
+    }
+
+    private static String baseName(Path input) {
+        return input.getFileName().toString().replaceFirst("\\.(csrrg|csrrgbin|bin)$", "");
+    }
+
+    private static String resultRow(Path input, int parts, CommandLineRunner.Result result) {
+        return String.join(",", csv(input.toString()), String.valueOf(result.vertices),
+                String.valueOf(result.edges), String.valueOf(parts), String.valueOf(result.loadMillis),
+                String.valueOf(result.partitionMillis), String.valueOf(result.writeMillis),
+                String.valueOf(result.cutEdges), String.format(Locale.ROOT, "%.4f", result.imbalance),
+                String.valueOf(result.balanced), "ok");
+    }
+
+    private static String failedRow(Path input, int parts, String status) {
+        return String.join(",", csv(input.toString()), "", "", String.valueOf(parts), "", "", "", "", "", "",
+                csv(status));
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
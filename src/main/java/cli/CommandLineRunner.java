@@ -0,0 +1,350 @@
+package cli;
+
+import algorithm.PartitioningPipeline;
+import io.FileReader;
+import io.FileWriter;
+import model.Graph;
+import model.ParsedData;
+import model.PartitionData;
+import utils.Stats;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless entry point: load, partition and write one graph without touching AWT.
+ */
+public class CommandLineRunner {
+    // what mvn package builds with the assembly plugin
+    private static final String ASSEMBLY_JAR = "graph-splitting-java-1.0-SNAPSHOT-jar-with-dependencies.jar";
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar " + jarName() + " --input <file> --parts <k> [options]",
+            "  --input <file>          .csrrg text or .bin/.csrrgbin binary graph",
+            "  --parts <k>             number of partitions",
+            "  --accuracy <percent>    allowed imbalance in percent (default 10)",
+            "  --fm-iterations <n>     FM passes, at least 1 (default " + PartitioningPipeline.DEFAULT_FM_ITERATIONS
+                    + ")",
+            "  --fm-mode <full|boundary>  FM over all vertices or the boundary only (default full)",
+            "  --algorithm <rg|parallel-rg|multilevel>  initial partitioning (default rg)",
+            "  --format <text|binary>  output format (default text)",
+            "  --output <file>         output path (default: input name with .out.csrrg or .out.bin)",
+            "  --seed <long>           random seed for repeatable runs",
+            "  --starts <n>            independent partitioning attempts run in parallel,",
+            "                          the one with the lowest cut is kept (default 1)",
+            "  --stats <file>          write partition quality and phase timings as JSON");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the pipeline for the given arguments and returns the process exit code:
+     * 0 on success, 1 when the run failed and 2 for invalid arguments.
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long startupMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        long start = System.nanoTime();
+        try {
+            Options options;
+            try {
+                options = Options.parse(args);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.err.println(USAGE);
+                return 2;
+            }
+            if (options == null) {
+                System.out.println(USAGE);
+                return 0;
+            }
+            if (!partition(options)) {
+                return 1;
+            }
+            System.out.println("Startup " + startupMillis + " ms, total " + (System.nanoTime() - start) / 1_000_000
+                    + " ms, peak RSS " + formatPeakRss());
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static boolean partition(Options options) throws IOException {
+        Result result = runJob(options);
+        if (result == null) {
+            return false;
+        }
+        System.out.println("Load " + result.loadMillis + " ms, partition " + result.partitionMillis + " ms, write "
+                + result.writeMillis + " ms, cut edges: " + result.cutEdges
+                + (result.balanced ? "" : " (balance criteria not met)"));
+        System.out.println("Output saved to " + options.output);
+        if (options.statsOutput != null) {
+            System.out.println("Statistics saved to " + options.statsOutput);
+        }
+        return true;
+    }
+
+    /**
+     * Loads, partitions and writes one graph. Everything the run touches is created
+     * here, so jobs for different files can run on different threads. Returns null
+     * when the graph has fewer vertices than requested parts.
+     */
+    static Result runJob(Options options) throws IOException {
+        Stats stats = new Stats();
+        long phaseStart = System.nanoTime();
+        ParsedData parsedData = readInput(options.input);
+        stats.addPhaseTime(Stats.Phase.PARSE, System.nanoTime() - phaseStart);
+        phaseStart = System.nanoTime();
+        Graph graph = new FileReader().loadGraph(parsedData);
+        stats.addPhaseTime(Stats.Phase.BUILD, System.nanoTime() - phaseStart);
+
+        if (options.parts > graph.getVertices() && graph.getVertices() > 0) {
+            System.err.println("Number of partitions cannot exceed number of vertices (" + graph.getVertices() + ").");
+            return null;
+        }
+        double accFraction = options.accuracyPercent / 100.0;
+        graph.setPartitions(options.parts);
+        graph.setMinCount(accFraction);
+        graph.setMaxCount(accFraction);
+        PartitionData partitionData = new PartitionData(options.parts);
+
+        boolean balanced;
+        if (options.starts > 1) {
+            long seed = options.seed != null ? options.seed : new Random().nextLong();
+            balanced = PartitioningPipeline.partitionMultiStart(graph, options.parts, partitionData,
+                    (float) accFraction, options.algorithm, options.fmIterations, options.boundaryFm, seed,
+                    options.starts, stats);
+        } else {
+            balanced = PartitioningPipeline.partition(graph, options.parts, partitionData, (float) accFraction,
+                    options.algorithm, options.fmIterations, options.boundaryFm, options.random(), stats);
+        }
+
+        phaseStart = System.nanoTime();
+        if (options.binary) {
+            FileWriter.writeBinary(options.output, graph.getParsedData(), partitionData, graph, options.parts);
+        } else {
+            FileWriter.writeText(options.output, graph.getParsedData(), partitionData, graph, options.parts);
+        }
+        stats.addPhaseTime(Stats.Phase.WRITE, System.nanoTime() - phaseStart);
+        stats.computePartitionQuality(graph, options.parts);
+        if (options.statsOutput != null) {
+            Files.writeString(Paths.get(options.statsOutput), stats.toJson());
+        }
+
+        Result result = new Result();
+        result.vertices = graph.getVertices();
+        result.edges = graph.getEdges();
+        result.loadMillis = (stats.getPhaseNanos(Stats.Phase.PARSE) + stats.getPhaseNanos(Stats.Phase.BUILD))
+                / 1_000_000;
+        result.partitionMillis = (stats.getPhaseNanos(Stats.Phase.GROW) + stats.getPhaseNanos(Stats.Phase.REFINE))
+                / 1_000_000;
+        result.writeMillis = stats.getPhaseMillis(Stats.Phase.WRITE);
+        result.cutEdges = stats.getCutEdges();
+        result.imbalance = stats.getImbalance();
+        result.balanced = balanced;
+        return result;
+    }
+
+    static ParsedData readInput(String input) throws IOException {
+        FileReader fileReader = new FileReader();
+        String lower = input.toLowerCase();
+        if (lower.endsWith(".bin") || lower.endsWith(".csrrgbin")) {
+            return fileReader.parseBinaryInput(input);
+        }
+        return fileReader.parseFile(input);
+    }
+
+    // name of the jar the program runs from, or of the assembly jar when it runs from classes
+    static String jarName() {
+        try {
+            Path location = Paths.get(CommandLineRunner.class.getProtectionDomain().getCodeSource().getLocation()
+                    .toURI());
+            Path fileName = location.getFileName();
+            if (fileName != null && fileName.toString().endsWith(".jar")) {
+                return fileName.toString();
+            }
+        } catch (URISyntaxException | SecurityException | IllegalArgumentException e) {
+            // fall back to the name of the build output
+        }
+        return ASSEMBLY_JAR;
+    }
+
+    // VmHWM is the resident set high-water mark; only Linux exposes it
+    static String formatPeakRss() {
+        Path status = Paths.get("/proc/self/status");
+        if (Files.isReadable(status)) {
+            try {
+                List<String> lines = Files.readAllLines(status);
+                for (String line : lines) {
+                    if (line.startsWith("VmHWM:")) {
+                        long kilobytes = Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                        return (kilobytes / 1024) + " MB";
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // fall through to the heap estimate
+            }
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return "unavailable (heap in use " + (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB)";
+    }
+
+    static final class Result {
+        int vertices;
+        int edges;
+        long loadMillis;
+        long partitionMillis;
+        long writeMillis;
+        int cutEdges;
+        double imbalance;
+        boolean balanced;
+    }
+
+    static final class Options {
+        String input;
+        String output;
+        int parts;
+        double accuracyPercent = 10;
+        int fmIterations = PartitioningPipeline.DEFAULT_FM_ITERATIONS;
+        boolean boundaryFm;
+        boolean binary;
+        PartitioningPipeline.Algorithm algorithm = PartitioningPipeline.Algorithm.REGION_GROWING;
+        Long seed;
+        int starts = 1;
+        String statsOutput;
+
+        Random random() {
+            return seed != null ? new Random(seed) : new Random();
+        }
+
+        // same settings for another input and output file
+        Options withFiles(String input, String output) {
+            Options copy = new Options();
+            copy.input = input;
+            copy.output = output;
+            copy.parts = parts;
+            copy.accuracyPercent = accuracyPercent;
+            copy.fmIterations = fmIterations;
+            copy.boundaryFm = boundaryFm;
+            copy.binary = binary;
+            copy.algorithm = algorithm;
+            copy.seed = seed;
+            copy.starts = starts;
+            copy.statsOutput = statsOutput;
+            return copy;
+        }
+
+        // returns null when help was requested
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("-h") || arg.equals("--help")) {
+                    return null;
+                }
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                if (equals > 0) {
+                    values.put(arg.substring(2, equals), arg.substring(equals + 1));
+                } else if (i + 1 < args.length) {
+                    values.put(arg.substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+            }
+
+            Options options = new Options();
+            options.input = values.remove("input");
+            if (options.input == null) {
+                throw new IllegalArgumentException("--input is required");
+            }
+            String parts = values.remove("parts");
+            if (parts == null) {
+                throw new IllegalArgumentException("--parts is required");
+            }
+            options.parts = parseInt("parts", parts);
+            if (options.parts <= 0) {
+                throw new IllegalArgumentException("Number of partitions must be positive.");
+            }
+            if (values.containsKey("accuracy")) {
+                options.accuracyPercent = parseDouble("accuracy", values.remove("accuracy"));
+                if (options.accuracyPercent < 0 || options.accuracyPercent > 100) {
+                    throw new IllegalArgumentException("Accuracy must be between 0% and 100%.");
+                }
+            }
+            if (values.containsKey("fm-iterations")) {
+                options.fmIterations = parseInt("fm-iterations", values.remove("fm-iterations"));
+                // FM treats 0 as "one pass per ten vertices", which is not what 0 reads like
+                if (options.fmIterations <= 0) {
+                    throw new IllegalArgumentException("--fm-iterations must be positive");
+                }
+            }
+            if (values.containsKey("fm-mode")) {
+                String mode = values.remove("fm-mode");
+                if (!mode.equals("full") && !mode.equals("boundary")) {
+                    throw new IllegalArgumentException("Unknown FM mode: " + mode);
+                }
+                options.boundaryFm = mode.equals("boundary");
+            }
+            if (values.containsKey("algorithm")) {
+                options.algorithm = PartitioningPipeline.Algorithm.fromOptionName(values.remove("algorithm"));
+            }
+            String format = values.containsKey("format") ? values.remove("format") : "text";
+            if (!format.equals("text") && !format.equals("binary")) {
+                throw new IllegalArgumentException("Unknown output format: " + format);
+            }
+            options.binary = format.equals("binary");
+            options.output = values.remove("output");
+            if (options.output == null) {
+                String base = options.input.replaceFirst("\\.(csrrg|csrrgbin|bin)$", "");
+                options.output = base + (options.binary ? ".out.bin" : ".out.csrrg");
+            }
+            if (values.containsKey("seed")) {
+                String seed = values.remove("seed");
+                try {
+                    options.seed = Long.parseLong(seed);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid value for --seed: " + seed);
+                }
+            }
+            if (values.containsKey("starts")) {
+                options.starts = parseInt("starts", values.remove("starts"));
+                if (options.starts <= 0) {
+                    throw new IllegalArgumentException("--starts must be positive");
+                }
+            }
+            options.statsOutput = values.remove("stats");
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option: --" + values.keySet().iterator().next());
+            }
+            return options;
+        }
+
+        private static int parseInt(String name, String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+            }
+        }
+
+        private static double parseDouble(String name, String value) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package cli;
+
+import io.GraphGenerator;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line front end for {@link GraphGenerator}: writes a synthetic graph for
+ * scale tests without loading it.
+ */
+public class GeneratorRunner {
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar " + CommandLineRunner.jarName()
+                    + " generate --type <type> --edges <m> --output <file> [options]",
+            "  --type <grid|rgg|rmat|planted>  grid mesh, random geometric, R-MAT power law or planted partition",
+            "  --edges <m>             approximate number of edges, e.g. 1e8",
+            "  --output <file>         output file",
+            "  --vertices <n>          number of vertices (default depends on the type)",
+            "  --blocks <k>            planted partition blocks (default 8)",
+            "  --mixing <fraction>     planted partition share of edges between blocks (default 0.1)",
+            "  --format <text|binary>  output format (default text)",
+            "  --seed <long>           random seed (default 1)");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    // returns the process exit code: 0 on success, 1 when writing failed, 2 for invalid arguments
+    public static int run(String[] args) {
+        long start = System.nanoTime();
+        Map<String, String> values = new HashMap<>();
+        GraphGenerator.Result result;
+        String output;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("-h") || arg.equals("--help")) {
+                    System.out.println(USAGE);
+                    return 0;
+                }
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                if (equals > 0) {
+                    values.put(arg.substring(2, equals), arg.substring(equals + 1));
+                } else if (i + 1 < args.length) {
+                    values.put(arg.substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+            }
+            GraphGenerator.Type type = GraphGenerator.Type.fromOptionName(require(values, "type"));
+            long edges = (long) parseDouble("edges", require(values, "edges"));
+            output = require(values, "output");
+            int vertices = values.containsKey("vertices")
+                    ? (int) parseDouble("vertices", values.remove("vertices"))
+                    : type.defaultVertices(edges);
+            int blocks = values.containsKey("blocks") ? (int) parseDouble("blocks", values.remove("blocks"))
+                    : GraphGenerator.DEFAULT_BLOCKS;
+            double mixing = values.containsKey("mixing") ? parseDouble("mixing", values.remove("mixing"))
+                    : GraphGenerator.DEFAULT_MIXING;
+            String format = values.containsKey("format") ? values.remove("format") : "text";
+            if (!format.equals("text") && !format.equals("binary")) {
+                throw new IllegalArgumentException("Unknown output format: " + format);
+            }
+            long seed = 1;
+            if (values.containsKey("seed")) {
+                String value = values.remove("seed");
+                try {
+                    seed = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid value for --seed: " + value);
+                }
+            }
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown option: --" + values.keySet().iterator().next());
+            }
+            result = GraphGenerator.generate(type, vertices, edges, blocks, mixing, seed, format.equals("binary"),
+                    output);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        System.out.println("Generated " + result.getVertices() + " vertices and " + result.getEdges() + " edges in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms. Output saved to " + output);
+        return 0;
+    }
+
+    private static String require(Map<String, String> values, String name) {
+        String value = values.remove(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+}
@@ -5,22 +5,33 @@ import io.FileReader;
 import io.FileWriter;
 import model.*;
 import algorithm.*;
+import utils.Stats;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
 import gui.MainWindow;
 
 public class ControlPanel extends JPanel {
     private MainWindow mainWindow;
     private JTextField partitionsField;
     private JTextField accuracyField;
+    private JTextField seedField;
+    private JComboBox<String> algorithmBox;
+    private JCheckBox liveViewBox;
     private JLabel inputFileLabel;
     private JLabel outputFileLabel;
     private JButton loadButton;
     private JButton runButton;
+    private JButton statsButton;
+    private JProgressBar progressBar;
+    private JButton cancelButton;
+    private PartitionWorker partitionWorker;
 
     private JPanel partitionsCheckboxPanel;
     private List<JCheckBox> partitionCheckboxes;
@@ -30,6 +41,16 @@ public class ControlPanel extends JPanel {
 
     private int selectedOutputType = 0;
 
+    private long parseNanos;
+    private long buildNanos;
+    private Stats lastStats;
+
+    private static final String ALGORITHM_REGION_GROWING = "Region Growing + FM";
+    private static final String ALGORITHM_PARALLEL_REGION_GROWING = "Parallel Region Growing + FM";
+    private static final String ALGORITHM_MULTILEVEL = "Multilevel";
+    // FM moves the live view can fall behind by before it redraws from the partition array
+    private static final int LIVE_RING_CAPACITY = 1 << 18;
+
     private JLabel showHideLabel;
 
     public ControlPanel(MainWindow mainWindow) {
@@ -73,6 +94,35 @@ public class ControlPanel extends JPanel {
 
         panel.add(Box.createRigidArea(new Dimension(0, 4)));
 
+        JLabel seedLabel = new JLabel("Seed (empty = random):");
+        seedLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(seedLabel);
+
+        seedField = new JTextField();
+        seedField.setMaximumSize(new Dimension(160, 22));
+        seedField.setPreferredSize(new Dimension(160, 22));
+        seedField.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(seedField);
+
+        panel.add(Box.createRigidArea(new Dimension(0, 4)));
+
+        JLabel algorithmLabel = new JLabel("Algorithm:");
+        algorithmLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(algorithmLabel);
+
+        algorithmBox = new JComboBox<>(new String[] { ALGORITHM_REGION_GROWING,
+                ALGORITHM_PARALLEL_REGION_GROWING, ALGORITHM_MULTILEVEL });
+        algorithmBox.setMaximumSize(new Dimension(160, 22));
+        algorithmBox.setPreferredSize(new Dimension(160, 22));
+        algorithmBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(algorithmBox);
+
+        liveViewBox = new JCheckBox("Show FM moves live");
+        liveViewBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(liveViewBox);
+
+        panel.add(Box.createRigidArea(new Dimension(0, 4)));
+
         loadButton = new JButton("Load Graph");
         loadButton.setAlignmentX(Component.LEFT_ALIGNMENT);
         loadButton.addActionListener(e -> loadGraph());
@@ -83,6 +133,33 @@ public class ControlPanel extends JPanel {
         runButton.addActionListener(e -> runPartitioning());
         panel.add(runButton);
 
+        statsButton = new JButton("Statistics");
+        statsButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        statsButton.setEnabled(false);
+        statsButton.addActionListener(e -> showStatistics());
+        panel.add(statsButton);
+
+        panel.add(Box.createRigidArea(new Dimension(0, 4)));
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setMaximumSize(new Dimension(160, 22));
+        progressBar.setPreferredSize(new Dimension(160, 22));
+        progressBar.setAlignmentX(Component.LEFT_ALIGNMENT);
+        progressBar.setVisible(false);
+        panel.add(progressBar);
+
+        cancelButton = new JButton("Cancel");
+        cancelButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        cancelButton.setVisible(false);
+        cancelButton.addActionListener(e -> {
+            if (partitionWorker != null) {
+                partitionWorker.requestCancel();
+                cancelButton.setEnabled(false);
+            }
+        });
+        panel.add(cancelButton);
+
         panel.add(Box.createRigidArea(new Dimension(0, 8)));
 
         showHideLabel = new JLabel("Show / Hide Partitions:");
@@ -195,55 +272,90 @@ public class ControlPanel extends JPanel {
             }
         }
 
-        FileReader fileReader = new FileReader();
-        String originalFilePath = selectedInputFile.getPath();
-        String filePathToParse = originalFilePath;
-        boolean isTempFileUsed = false;
-
-        try {
-            ParsedData parsedData;
-            String fileNameLower = selectedInputFile.getName().toLowerCase();
-
-            if (fileNameLower.endsWith(".csrrgbin") || fileNameLower.endsWith(".bin")) {
-                System.out.println("Attempting to convert binary file: " + originalFilePath);
-                filePathToParse = fileReader.convertBinaryToTemporaryTextFile(originalFilePath);
-                isTempFileUsed = true;
-                System.out.println("Binary file converted to temporary text file: " + filePathToParse);
+        File inputFile = selectedInputFile;
+        setBusy(true, false);
+        progressBar.setString("Parsing " + inputFile.getName());
+        new SwingWorker<Graph, String>() {
+            private long parseTime;
+            private long buildTime;
+            private GraphPanel.Layout layout;
+
+            @Override
+            protected Graph doInBackground() throws Exception {
+                FileReader fileReader = new FileReader();
+                String filePath = inputFile.getPath();
+                String fileNameLower = inputFile.getName().toLowerCase();
+
+                long phaseStart = System.nanoTime();
+                ParsedData parsedData;
+                if (fileNameLower.endsWith(".csrrgbin") || fileNameLower.endsWith(".bin")) {
+                    parsedData = fileReader.parseBinaryInput(filePath);
+                } else {
+                    parsedData = fileReader.parseFile(filePath);
+                }
+                parseTime = System.nanoTime() - phaseStart;
+                publish("Building graph");
+                phaseStart = System.nanoTime();
+                Graph graph = fileReader.loadGraph(parsedData);
+                buildTime = System.nanoTime() - phaseStart;
+                publish("Laying out graph");
+                layout = new GraphPanel.Layout(graph);
+                return graph;
             }
 
-            parsedData = fileReader.parseFile(filePathToParse);
-            Graph graph = fileReader.loadGraph(parsedData);
-            mainWindow.updateGraph(graph);
-
-            if (graph.getPartitions() > 1) {
-                boolean isTrulyPrePartitioned = false;
-                if (graph.getNodes() != null && !graph.getNodes().isEmpty()) {
-                    for (Node node : graph.getNodes()) {
-                        if (node.getPartId() >= 0 && node.getPartId() < graph.getPartitions()) {
-                            isTrulyPrePartitioned = true;
-                            break;
-                        }
-                    }
-                }
+            @Override
+            protected void process(List<String> statuses) {
+                progressBar.setString(statuses.get(statuses.size() - 1));
+            }
 
-                if (isTrulyPrePartitioned) {
-                    runButton.setEnabled(false);
-                    partitionsField.setText(String.valueOf(graph.getPartitions()));
-                    partitionsField.setEnabled(false);
-                    accuracyField.setEnabled(false);
-                    accuracyField.setText("");
-                    createPartitionCheckboxes(graph.getPartitions());
-                    System.out.println("Graph is pre-partitioned. Controls disabled.");
-                } else {
+            @Override
+            protected void done() {
+                setBusy(false, false);
+                try {
+                    Graph graph = get();
+                    parseNanos = parseTime;
+                    buildNanos = buildTime;
+                    showLoadedGraph(graph, layout);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(ControlPanel.this, "Error loading graph: " + cause.getMessage());
                     runButton.setEnabled(true);
                     partitionsField.setEnabled(true);
                     partitionsField.setText("");
                     accuracyField.setEnabled(true);
                     accuracyField.setText("");
                     createPartitionCheckboxes(0);
-                    System.out.println(
-                            "Graph loaded with single partition or no valid partition data. Controls enabled.");
                 }
+            }
+        }.execute();
+    }
+
+    private void showLoadedGraph(Graph graph, GraphPanel.Layout layout) {
+        mainWindow.updateGraph(graph, layout);
+        lastStats = null;
+        statsButton.setEnabled(false);
+
+        if (graph.getPartitions() > 1) {
+            boolean isTrulyPrePartitioned = false;
+            for (int partId : graph.getPartIds()) {
+                if (partId >= 0 && partId < graph.getPartitions()) {
+                    isTrulyPrePartitioned = true;
+                    break;
+                }
+            }
+
+            if (isTrulyPrePartitioned) {
+                runButton.setEnabled(false);
+                partitionsField.setText(String.valueOf(graph.getPartitions()));
+                partitionsField.setEnabled(false);
+                accuracyField.setEnabled(false);
+                accuracyField.setText("");
+                createPartitionCheckboxes(graph.getPartitions());
+                lastStats = newStats();
+                lastStats.computePartitionQuality(graph, graph.getPartitions());
+                statsButton.setEnabled(true);
+                System.out.println("Graph is pre-partitioned. Controls disabled.");
             } else {
                 runButton.setEnabled(true);
                 partitionsField.setEnabled(true);
@@ -251,26 +363,19 @@ public class ControlPanel extends JPanel {
                 accuracyField.setEnabled(true);
                 accuracyField.setText("");
                 createPartitionCheckboxes(0);
-                System.out.println("Graph loaded as unpartitioned. Controls enabled.");
+                System.out.println(
+                        "Graph loaded with single partition or no valid partition data. Controls enabled.");
             }
-            mainWindow.getGraphPanel().repaint();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading graph: " + e.getMessage());
+        } else {
             runButton.setEnabled(true);
             partitionsField.setEnabled(true);
             partitionsField.setText("");
             accuracyField.setEnabled(true);
             accuracyField.setText("");
             createPartitionCheckboxes(0);
-        } finally {
-            if (isTempFileUsed && filePathToParse != null) {
-                File tempFile = new File(filePathToParse);
-                if (tempFile.exists() && tempFile.getName().startsWith("temp_graph_")) {
-                }
-            }
+            System.out.println("Graph loaded as unpartitioned. Controls enabled.");
         }
+        mainWindow.getGraphPanel().repaint();
     }
 
     private void runPartitioning() {
@@ -298,6 +403,20 @@ public class ControlPanel extends JPanel {
             return;
         }
 
+        // a drawn seed is written into the field, so the run can be repeated as it is
+        long seed;
+        if (seedField.getText().isBlank()) {
+            seed = new Random().nextLong();
+            seedField.setText(String.valueOf(seed));
+        } else {
+            try {
+                seed = Long.parseLong(seedField.getText().trim());
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(this, "Seed must be a whole number.");
+                return;
+            }
+        }
+
         if (parts <= 0) {
             JOptionPane.showMessageDialog(this, "Number of partitions must be positive.");
             return;
@@ -316,47 +435,220 @@ public class ControlPanel extends JPanel {
         graph.setMinCount(accFraction);
         graph.setMaxCount(accFraction);
 
-        PartitionData partitionData = new PartitionData(parts);
-        if (graph.getNodes() != null) {
-            for (Node node : graph.getNodes()) {
-                node.setPartId(-1);
-            }
+        PartitioningPipeline.Algorithm algorithm = ALGORITHM_MULTILEVEL.equals(algorithmBox.getSelectedItem())
+                ? PartitioningPipeline.Algorithm.MULTILEVEL
+                : ALGORITHM_PARALLEL_REGION_GROWING.equals(algorithmBox.getSelectedItem())
+                        ? PartitioningPipeline.Algorithm.PARALLEL_REGION_GROWING
+                        : PartitioningPipeline.Algorithm.REGION_GROWING;
+        System.out.println("Starting " + algorithmBox.getSelectedItem() + " with " + parts + " parts, "
+                + (accFraction * 100) + "% accuracy and seed " + seed + ".");
+        MoveRing moves = liveViewBox.isSelected() ? new MoveRing(LIVE_RING_CAPACITY) : null;
+        partitionWorker = new PartitionWorker(graph, parts, (float) accFraction, algorithm, seed,
+                selectedOutputFile, selectedOutputType, newStats(), moves);
+        if (moves != null) {
+            mainWindow.getGraphPanel().startLiveView(moves, partitionWorker.work.getPartIds());
         }
+        setBusy(true, true);
+        progressBar.setString(partitionWorker.growStatus());
+        partitionWorker.execute();
+    }
 
-        System.out
-                .println("Starting Region Growing with " + parts + " parts and " + (accFraction * 100) + "% accuracy.");
-        boolean rgSuccess = RegionGrowing.regionGrowing(graph, parts, partitionData, (float) accFraction);
-        if (!rgSuccess) {
-            System.out.println("Region Growing completed, but balance criteria might not be fully met.");
-        } else {
-            System.out.println("Region Growing completed successfully.");
+    // disables the controls that would start another job while one runs in the background
+    private void setBusy(boolean busy, boolean cancellable) {
+        loadButton.setEnabled(!busy);
+        runButton.setEnabled(!busy);
+        algorithmBox.setEnabled(!busy);
+        liveViewBox.setEnabled(!busy);
+        if (busy) {
+            statsButton.setEnabled(false);
         }
+        progressBar.setIndeterminate(busy);
+        progressBar.setValue(0);
+        progressBar.setVisible(busy);
+        cancelButton.setEnabled(busy && cancellable);
+        cancelButton.setVisible(busy && cancellable);
+    }
 
-        System.out.println("Starting FM Optimization.");
-        int fmMaxIterations = 100;
-        FmOptimization.cutEdgesOptimization(graph, partitionData, fmMaxIterations);
-        System.out.println("FM Optimization completed.");
+    /**
+     * Partitions and writes the graph off the event dispatch thread. The pipeline
+     * reports phases and FM passes through the listener, which feeds the progress
+     * bar; Cancel makes FM stop after its current pass, and the best partition
+     * found so far is still written. The run works on an unassigned copy of the
+     * shown graph, whose partition only changes on the event dispatch thread: from
+     * the moves FM publishes for the live view, and as a whole once the run is done.
+     */
+    private final class PartitionWorker extends SwingWorker<Stats, String> {
+        // share of the progress bar before refinement starts and once it is done
+        private static final int REFINE_START = 40;
+        private static final int REFINE_END = 95;
+
+        private final Graph graph;
+        private final Graph work;
+        private final int parts;
+        private final float accuracy;
+        private final PartitioningPipeline.Algorithm algorithm;
+        private final long seed;
+        private final File outputFile;
+        private final int outputType;
+        private final Stats stats;
+        private final MoveRing moves;
+        private final int[] previousPartIds;
+        private volatile boolean cancelRequested;
+        private volatile Stats.Phase phase = Stats.Phase.GROW;
+        private boolean balanced;
+        private int passes;
+
+        private final ProgressListener listener = new ProgressListener() {
+            @Override
+            public void phaseStarted(Stats.Phase started) {
+                phase = started;
+                if (started == Stats.Phase.REFINE) {
+                    setProgress(REFINE_START);
+                }
+                publish(started == Stats.Phase.REFINE ? "Refining (FM)" : growStatus());
+            }
 
-        mainWindow.updateGraph(graph);
+            @Override
+            public void passCompleted(int pass, int maxPasses, int cut) {
+                passes++;
+                if (phase == Stats.Phase.REFINE) {
+                    setProgress(REFINE_START + (REFINE_END - REFINE_START) * pass / Math.max(1, maxPasses));
+                }
+                publish("FM pass " + pass + ", cut " + cut);
+            }
 
-        try {
-            if (selectedOutputType == 0) {
-                FileWriter.writeText(selectedOutputFile.getAbsolutePath(), graph.getParsedData(), partitionData, graph,
+            @Override
+            public boolean isCancelled() {
+                return cancelRequested;
+            }
+
+            @Override
+            public MoveRing getMoveRing() {
+                return moves;
+            }
+        };
+
+        PartitionWorker(Graph graph, int parts, float accuracy, PartitioningPipeline.Algorithm algorithm, long seed,
+                File outputFile, int outputType, Stats stats, MoveRing moves) {
+            this.graph = graph;
+            this.work = graph.copyUnassigned();
+            this.parts = parts;
+            this.accuracy = accuracy;
+            this.algorithm = algorithm;
+            this.seed = seed;
+            this.outputFile = outputFile;
+            this.outputType = outputType;
+            this.stats = stats;
+            this.moves = moves;
+            this.previousPartIds = moves != null ? graph.getPartIds().clone() : null;
+            addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setValue((Integer) e.getNewValue());
+                }
+            });
+        }
+
+        void requestCancel() {
+            cancelRequested = true;
+            publish("Stopping after the current FM pass");
+        }
+
+        String growStatus() {
+            return algorithm == PartitioningPipeline.Algorithm.MULTILEVEL ? "Multilevel partitioning"
+                    : "Growing regions";
+        }
+
+        @Override
+        protected Stats doInBackground() throws IOException {
+            PartitionData partitionData = new PartitionData(parts);
+            balanced = PartitioningPipeline.partition(work, parts, partitionData, accuracy, algorithm,
+                    PartitioningPipeline.DEFAULT_FM_ITERATIONS, false, new Random(seed), stats, listener);
+
+            phase = Stats.Phase.WRITE;
+            setProgress(REFINE_END);
+            publish("Writing " + outputFile.getName());
+            long writeStart = System.nanoTime();
+            if (outputType == 0) {
+                FileWriter.writeText(outputFile.getAbsolutePath(), work.getParsedData(), partitionData, work,
                         parts);
             } else {
-                FileWriter.writeBinary(selectedOutputFile.getAbsolutePath(), graph.getParsedData(), partitionData,
-                        graph, parts);
+                FileWriter.writeBinary(outputFile.getAbsolutePath(), work.getParsedData(), partitionData, work,
+                        parts);
+            }
+            stats.addPhaseTime(Stats.Phase.WRITE, System.nanoTime() - writeStart);
+            stats.computePartitionQuality(work, parts);
+            setProgress(100);
+            return stats;
+        }
+
+        @Override
+        protected void process(List<String> statuses) {
+            progressBar.setString(statuses.get(statuses.size() - 1));
+        }
+
+        @Override
+        protected void done() {
+            partitionWorker = null;
+            setBusy(false, false);
+            mainWindow.getGraphPanel().stopLiveView();
+            try {
+                lastStats = get();
+            } catch (InterruptedException | ExecutionException e) {
+                // a failed run keeps the partition shown before it, also after live moves
+                if (previousPartIds != null) {
+                    System.arraycopy(previousPartIds, 0, graph.getPartIds(), 0, previousPartIds.length);
+                    mainWindow.getGraphPanel().invalidateLayers();
+                }
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                cause.printStackTrace();
+                JOptionPane.showMessageDialog(ControlPanel.this, "Error partitioning graph: " + cause.getMessage());
+                return;
+            }
+            // the worker has finished with the copy, so its result replaces the shown partition
+            System.arraycopy(work.getPartIds(), 0, graph.getPartIds(), 0, graph.getVertices());
+            mainWindow.getGraphPanel().showAllPartitions();
+            mainWindow.getGraphPanel().invalidateLayers();
+            statsButton.setEnabled(true);
+            if (!balanced) {
+                System.out.println("Partitioning completed, but balance criteria might not be fully met.");
+            } else {
+                System.out.println("Partitioning completed successfully.");
+            }
+            System.out.println("Partitioning took " + (lastStats.getPhaseMillis(Stats.Phase.GROW)
+                    + lastStats.getPhaseMillis(Stats.Phase.REFINE)) + " ms, " + passes + " FM passes, cut edges: "
+                    + lastStats.getCutEdges() + ", seed " + seed);
+            if (cancelRequested) {
+                JOptionPane.showMessageDialog(ControlPanel.this, "Partitioning cancelled after " + passes
+                        + " FM passes. Best partition so far saved to " + outputFile.getName() + " (seed " + seed
+                        + ").");
+            } else {
+                JOptionPane.showMessageDialog(ControlPanel.this,
+                        "Partitioning complete. Output saved to " + outputFile.getName() + " (seed " + seed + ").");
             }
-            JOptionPane.showMessageDialog(this,
-                    "Partitioning complete. Output saved to " + selectedOutputFile.getName());
 
             createPartitionCheckboxes(parts);
             mainWindow.getGraphPanel().repaint();
+        }
+    }
+
+    private Stats newStats() {
+        Stats stats = new Stats();
+        stats.addPhaseTime(Stats.Phase.PARSE, parseNanos);
+        stats.addPhaseTime(Stats.Phase.BUILD, buildNanos);
+        return stats;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error saving partitioned graph: " + e.getMessage());
+    private void showStatistics() {
+        if (lastStats == null) {
+            return;
         }
+        JTextArea text = new JTextArea(lastStats.toJson());
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(text);
+        scrollPane.setPreferredSize(new Dimension(420, 360));
+        JOptionPane.showMessageDialog(this, scrollPane, "Partition statistics", JOptionPane.PLAIN_MESSAGE);
     }
 
     public void setInputFileLabel(String text) {
@@ -3,18 +3,56 @@ package gui;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
-import java.util.HashMap;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import algorithm.MoveRing;
+import model.CsrGraph;
 import model.Graph;
-import model.Node;
 import model.ParsedData;
 
+/**
+ * Draws the graph on the layout given by the CSRRG column and row lines. Vertex
+ * centres are kept in float arrays (NaN for vertices without a position) and
+ * indexed in a uniform grid, so a repaint only visits the vertices and edges
+ * around the visible part of the graph and draws each undirected edge once.
+ * The level of detail follows the zoom and the amount of visible graph: labels
+ * only when they are legible, vertices as pixels or heatmap cells once they
+ * shrink below a few pixels, and one bundle per pair of partitions instead of
+ * the individual edges when there are too many of them to tell apart.
+ * In live view the panel follows a running FM refinement through its move ring,
+ * re-rendering only the tiles around the moved vertices and plotting the cut.
+ */
 public class GraphPanel extends JPanel implements MouseListener, MouseMotionListener, MouseWheelListener {
     private Graph graph;
-    private Map<Integer, Point> nodePositions;
+    private float[] nodeX = new float[0];
+    private float[] nodeY = new float[0];
+    private GraphSpatialIndex spatialIndex;
     private static final int NODE_SIZE = 30;
+    // labels are drawn from this zoom on, outlines and squares from these on-screen sizes
+    private static final double LABEL_MIN_ZOOM = 0.6;
+    private static final double OUTLINE_MIN_PIXELS = 6;
+    private static final double SQUARE_MIN_PIXELS = 3;
+    private static final int HEATMAP_CELL_PIXELS = 4;
+    // above this estimate of visible edges only the partition-to-partition bundles are drawn
+    private static final int MAX_DRAWN_EDGES = 20_000;
+    private static final int MAX_BUNDLED_PARTITIONS = 512;
+    private static final Color UNASSIGNED_POINT_COLOR = new Color(160, 160, 160);
+    private static final BasicStroke OUTLINE_STROKE = new BasicStroke(2.0f);
+    private static final long TILE_CACHE_BYTES = Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 8);
+    // live view: frame interval, moves read per drain and tiles re-rendered before the whole cache is dropped
+    private static final int LIVE_FRAME_MILLIS = 40;
+    private static final int LIVE_MOVES_PER_DRAIN = 1 << 14;
+    private static final int MAX_DIRTY_TILES = 256;
+    private static final int CUT_PLOT_WIDTH = 240;
+    private static final int CUT_PLOT_HEIGHT = 80;
     private static final Color[] PARTITION_COLORS = {
             Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW,
             Color.CYAN, Color.MAGENTA, Color.ORANGE, Color.PINK
@@ -23,32 +61,49 @@ public class GraphPanel extends JPanel implements MouseListener, MouseMotionList
     private Point lastMouse;
     private Point2D.Double viewOffset = new Point2D.Double(0, 0);
     private double zoomFactor = 1.0;
-    private static final double MIN_ZOOM = 0.1;
+    private static final double MIN_ZOOM = 0.01;
     private static final double MAX_ZOOM = 5.0;
 
-    private Map<Integer, Boolean> visiblePartitions = new HashMap<>();
+    private final BitSet hiddenPartitions = new BitSet();
+    private final PointRaster pointRaster = new PointRaster(pointColors());
+    private int[] visitStamp = new int[0];
+    private final LayerTileCache tileCache = new LayerTileCache(TILE_CACHE_BYTES);
+    private int visibilityVersion;
+    private int frame;
+
+    private MoveRing liveMoves;
+    private int[] livePartIds;
+    private Timer liveTimer;
+    private final int[] liveBuffer = new int[LIVE_MOVES_PER_DRAIN * 4];
+    private int[] cutHistory = new int[256];
+    private int cutSamples;
 
     public GraphPanel() {
         setBackground(Color.WHITE);
-        nodePositions = new HashMap<>();
         addMouseListener(this);
         addMouseMotionListener(this);
         addMouseWheelListener(this);
     }
 
     public void setGraph(Graph graph) {
+        setGraph(graph, graph == null ? null : new Layout(graph));
+    }
+
+    // shows the graph with a layout built for it beforehand, possibly off the event dispatch thread
+    public void setGraph(Graph graph, Layout layout) {
+        if (graph != this.graph) {
+            cutSamples = 0;
+        }
         this.graph = graph;
         if (graph != null) {
-            calculateNodePositions();
-
-            visiblePartitions.clear();
-            for (int i = 0; i < graph.getVertices(); i++) {
-                Node node = graph.getNode(i);
-                int partId = node.getPartId();
-                if (partId >= 0 && !visiblePartitions.containsKey(partId)) {
-                    visiblePartitions.put(partId, true);
-                }
+            nodeX = layout.x;
+            nodeY = layout.y;
+            spatialIndex = layout.index;
+            if (layout.size != null) {
+                setPreferredSize(layout.size);
             }
+            hiddenPartitions.clear();
+            invalidateLayers();
 
             revalidate();
             repaint();
@@ -59,11 +114,173 @@ public class GraphPanel extends JPanel implements MouseListener, MouseMotionList
         return graph;
     }
 
-    private void calculateNodePositions() {
-        nodePositions.clear();
-        if (graph == null || graph.getVertices() == 0) return;
+    // drops the cached layer tiles; call after changing the partition assignment of the shown graph
+    public void invalidateLayers() {
+        tileCache.clear();
+        visibilityVersion++;
+        repaint();
+    }
+
+    /**
+     * Follows the refinement publishing into the ring: every LIVE_FRAME_MILLIS the
+     * panel drains the moves, applies them to the shown graph, drops the tiles
+     * around the moved vertices and adds the latest cut to the plot. The refinement
+     * works on its own partition array; a RESET move or moves lost to a full ring
+     * make the panel copy that array and redraw everything. The copy may be a
+     * little ahead of the drained moves, so the caller puts the final partition in
+     * place once the run is done.
+     */
+    public void startLiveView(MoveRing moves, int[] sourcePartIds) {
+        stopLiveView();
+        liveMoves = moves;
+        livePartIds = sourcePartIds;
+        cutSamples = 0;
+        liveTimer = new Timer(LIVE_FRAME_MILLIS, e -> drainLiveMoves());
+        liveTimer.start();
+    }
+
+    // reads the moves still in the ring; the cut plot stays until another graph is shown
+    public void stopLiveView() {
+        if (liveTimer == null) return;
+        liveTimer.stop();
+        drainLiveMoves();
+        liveTimer = null;
+        liveMoves = null;
+        livePartIds = null;
+    }
+
+    private void drainLiveMoves() {
+        if (graph == null || spatialIndex == null) return;
+        int[] partIds = graph.getPartIds();
+        Set<Long> dirtyTiles = new HashSet<>();
+        boolean redrawAll = false;
+        int lastCut = -1;
+        int count;
+        do {
+            count = liveMoves.drain(liveBuffer, LIVE_MOVES_PER_DRAIN);
+            if (count == MoveRing.LOST) {
+                redrawAll = true;
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                int vertex = liveBuffer[i * 4];
+                lastCut = liveBuffer[i * 4 + 3];
+                if (vertex == MoveRing.RESET) {
+                    redrawAll = true;
+                } else {
+                    partIds[vertex] = liveBuffer[i * 4 + 2];
+                    if (!redrawAll) {
+                        redrawAll = !markDirtyTiles(vertex, dirtyTiles);
+                    }
+                }
+            }
+        } while (count == LIVE_MOVES_PER_DRAIN);
+
+        if (lastCut >= 0) {
+            if (cutSamples == cutHistory.length) {
+                cutHistory = Arrays.copyOf(cutHistory, cutSamples * 2);
+            }
+            cutHistory[cutSamples++] = lastCut;
+        }
+        if (redrawAll) {
+            System.arraycopy(livePartIds, 0, partIds, 0, Math.min(partIds.length, livePartIds.length));
+            tileCache.clear();
+        } else if (!dirtyTiles.isEmpty()) {
+            tileCache.invalidate(zoomFactor, dirtyTiles);
+        }
+        if (redrawAll || !dirtyTiles.isEmpty() || lastCut >= 0) {
+            repaint();
+        }
+    }
+
+    // adds the tiles under the vertex and its edges at the current zoom; false once there are too many
+    private boolean markDirtyTiles(int vertex, Set<Long> dirtyTiles) {
+        if (vertex >= nodeX.length || Float.isNaN(nodeX[vertex])) return true;
+        float minX = nodeX[vertex], maxX = minX, minY = nodeY[vertex], maxY = minY;
+        CsrGraph csr = graph.getCsr();
+        int[] targets = csr.getTargets();
+        for (int i = csr.getOffsets()[vertex]; i < csr.getOffsets()[vertex + 1]; i++) {
+            int u = targets[i];
+            if (u < nodeX.length && !Float.isNaN(nodeX[u])) {
+                minX = Math.min(minX, nodeX[u]);
+                maxX = Math.max(maxX, nodeX[u]);
+                minY = Math.min(minY, nodeY[u]);
+                maxY = Math.max(maxY, nodeY[u]);
+            }
+        }
+        double scale = zoomFactor / LayerTileCache.TILE_SIZE;
+        int firstColumn = (int) Math.floor((minX - NODE_SIZE) * scale);
+        int lastColumn = (int) Math.floor((maxX + NODE_SIZE) * scale);
+        int firstRow = (int) Math.floor((minY - NODE_SIZE) * scale);
+        int lastRow = (int) Math.floor((maxY + NODE_SIZE) * scale);
+        if ((long) (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1) + dirtyTiles.size() > MAX_DIRTY_TILES) {
+            return false;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                dirtyTiles.add(LayerTileCache.tileId(column, row));
+            }
+        }
+        return true;
+    }
+
+    private void drawCutPlot(Graphics2D g2d) {
+        int x0 = 10;
+        int y0 = getHeight() - CUT_PLOT_HEIGHT - 10;
+        g2d.setColor(new Color(255, 255, 255, 220));
+        g2d.fillRect(x0, y0, CUT_PLOT_WIDTH, CUT_PLOT_HEIGHT);
+        g2d.setColor(Color.GRAY);
+        g2d.drawRect(x0, y0, CUT_PLOT_WIDTH, CUT_PLOT_HEIGHT);
+
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < cutSamples; i++) {
+            min = Math.min(min, cutHistory[i]);
+            max = Math.max(max, cutHistory[i]);
+        }
+        Path2D.Float line = new Path2D.Float();
+        for (int i = 0; i < cutSamples; i++) {
+            float x = x0 + 4 + (CUT_PLOT_WIDTH - 8) * (cutSamples == 1 ? 0 : (float) i / (cutSamples - 1));
+            float y = y0 + CUT_PLOT_HEIGHT - 16
+                    - (CUT_PLOT_HEIGHT - 24) * (max == min ? 0 : (float) (cutHistory[i] - min) / (max - min));
+            if (i == 0) {
+                line.moveTo(x, y);
+            } else {
+                line.lineTo(x, y);
+            }
+        }
+        g2d.setStroke(new BasicStroke(1.5f));
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.draw(line);
+        g2d.drawString("cut " + cutHistory[cutSamples - 1] + " (max " + max + ")", x0 + 4,
+                y0 + CUT_PLOT_HEIGHT - 3);
+    }
+
+    /**
+     * Vertex centres of a graph on the layout given by the CSRRG column and row
+     * lines, with the spatial index over them. Building one touches no Swing
+     * state, so a loader can do it off the event dispatch thread.
+     */
+    public static final class Layout {
+        private final float[] x;
+        private final float[] y;
+        private final Dimension size;
+        private final GraphSpatialIndex index;
+
+        public Layout(Graph graph) {
+            x = new float[graph.getVertices()];
+            y = new float[x.length];
+            Arrays.fill(x, Float.NaN);
+            Arrays.fill(y, Float.NaN);
+            size = calculateNodePositions(graph, x, y);
+            index = new GraphSpatialIndex(x, y, graph.getCsr());
+        }
+    }
+
+    // fills the centres of the vertices the CSRRG lines place and returns the size of the drawing
+    private static Dimension calculateNodePositions(Graph graph, float[] nodeX, float[] nodeY) {
+        if (graph.getVertices() == 0) return null;
         ParsedData parsedData = graph.getParsedData();
-        if (parsedData == null || parsedData.getLine2() == null || parsedData.getLine3() == null) return;
+        if (parsedData == null || parsedData.getLine2() == null || parsedData.getLine3() == null) return null;
 
         List<Integer> line2 = parsedData.getLine2();
         List<Integer> line3 = parsedData.getLine3();
@@ -73,7 +290,7 @@ public class GraphPanel extends JPanel implements MouseListener, MouseMotionList
         int totalWidth = matrixSize * minSpacing;
         int totalHeight = matrixSize * minSpacing;
         int padding = NODE_SIZE * 2;
-        setPreferredSize(new Dimension(totalWidth + padding * 2, totalHeight + padding * 2));
+        Dimension size = new Dimension(totalWidth + padding * 2, totalHeight + padding * 2);
 
         int numberOfRows = line3.size() - 1;
         int globalMinPos = Integer.MAX_VALUE, globalMaxPos = Integer.MIN_VALUE;
@@ -92,83 +309,431 @@ public class GraphPanel extends JPanel implements MouseListener, MouseMotionList
                         : (float) (line2.get(i) - globalMinPos) / (globalMaxPos - globalMinPos);
                 int x = padding + (int) (horizontalPosition * (totalWidth - NODE_SIZE));
                 int y = padding + (int) ((float) row / numberOfRows * (totalHeight - NODE_SIZE));
-                nodePositions.put(i, new Point(x, y));
+                if (i < nodeX.length) {
+                    nodeX[i] = x + NODE_SIZE / 2;
+                    nodeY[i] = y + NODE_SIZE / 2;
+                }
             }
         }
+        return size;
+    }
+
+    // RGB of the partition colours followed by the colour of unassigned vertices
+    private static int[] pointColors() {
+        int[] colors = new int[PARTITION_COLORS.length + 1];
+        for (int c = 0; c < PARTITION_COLORS.length; c++) {
+            colors[c] = PARTITION_COLORS[c].getRGB() & 0xFFFFFF;
+        }
+        colors[PARTITION_COLORS.length] = UNASSIGNED_POINT_COLOR.getRGB() & 0xFFFFFF;
+        return colors;
     }
 
     private boolean isPartitionVisible(int partId) {
-        return visiblePartitions.getOrDefault(partId, true);
+        return partId < 0 || !hiddenPartitions.get(partId);
+    }
+
+    public void showAllPartitions() {
+        hiddenPartitions.clear();
+        visibilityVersion++;
+        repaint();
     }
 
     public void setPartitionVisible(int partId, boolean visible) {
-        visiblePartitions.put(partId, visible);
+        if (hiddenPartitions.get(partId) != !visible) {
+            hiddenPartitions.set(partId, !visible);
+            visibilityVersion++;
+        }
         repaint();
     }
 
+    /**
+     * Draws the graph from cached layer tiles: per tile the grey cut edges, then the
+     * layer of every visible partition. Tiles missing from the cache are rendered at
+     * the level of detail the zoom calls for. When the visible vertices have too
+     * many edges to tell apart, the tiles hold no edges and the partition-to-partition
+     * bundles are drawn on top instead.
+     */
     private void drawGraph(Graphics2D g2d) {
-        if (graph == null) return;
-
-        g2d.setColor(new Color(220, 220, 220));
-        g2d.setStroke(new BasicStroke(1.0f));
-        for (int i = 0; i < graph.getVertices(); i++) {
-            Point p1 = nodePositions.get(i);
-            Node node1 = graph.getNode(i);
-            if (p1 != null) {
-                if (node1.getPartId() >= 0 && !isPartitionVisible(node1.getPartId())) continue;
-                for (Node neighbor : node1.getNeighbours()) {
-                    Point p2 = nodePositions.get(neighbor.getId());
-                    Node node2 = graph.getNode(neighbor.getId());
-                    if (p2 != null) {
-                        if (node2.getPartId() >= 0 && !isPartitionVisible(node2.getPartId())) continue;
-                        g2d.drawLine(p1.x + NODE_SIZE / 2, p1.y + NODE_SIZE / 2,
-                                p2.x + NODE_SIZE / 2, p2.y + NODE_SIZE / 2);
+        if (graph == null || spatialIndex == null) return;
+
+        double viewMinX = viewOffset.x;
+        double viewMinY = viewOffset.y;
+        double viewMaxX = viewMinX + getWidth() / zoomFactor;
+        double viewMaxY = viewMinY + getHeight() / zoomFactor;
+        CsrGraph csr = graph.getCsr();
+        int n = Math.min(nodeX.length, csr.getVertices());
+        int count = spatialIndex.query(viewMinX - NODE_SIZE, viewMinY - NODE_SIZE, viewMaxX + NODE_SIZE,
+                viewMaxY + NODE_SIZE);
+        double averageDegree = n == 0 ? 0 : (double) csr.getTargets().length / n;
+        // long edges also cross the view from vertices outside it
+        double visibleEdges = count * averageDegree / 2;
+        boolean edges = visibleEdges <= MAX_DRAWN_EDGES
+                && visibleEdges + spatialIndex.queryLongEdges(viewMinX, viewMinY, viewMaxX, viewMaxY,
+                        MAX_DRAWN_EDGES + 1) <= MAX_DRAWN_EDGES;
+
+        int size = LayerTileCache.TILE_SIZE;
+        long originX = Math.round(viewMinX * zoomFactor);
+        long originY = Math.round(viewMinY * zoomFactor);
+        int firstColumn = (int) Math.floorDiv(originX, size);
+        int lastColumn = (int) Math.floorDiv(originX + getWidth() - 1, size);
+        int firstRow = (int) Math.floorDiv(originY, size);
+        int lastRow = (int) Math.floorDiv(originY + getHeight() - 1, size);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                LayerTileCache.Tile tile = tileCache.get(zoomFactor, edges, column, row);
+                if (tile == null) {
+                    tile = renderTile(column, row, edges);
+                    tileCache.put(zoomFactor, edges, column, row, tile);
+                }
+                if (edges && tile.cutVersion != visibilityVersion) {
+                    long before = tile.bytes();
+                    renderCutEdges(tile, column, row);
+                    tileCache.resized(tile.bytes() - before);
+                }
+                int x = (int) (column * (long) size - originX);
+                int y = (int) (row * (long) size - originY);
+                if (tile.cutEdges != null) {
+                    g2d.drawImage(tile.cutEdges, x, y, null);
+                }
+                for (int layer = 0; layer < tile.layers.length; layer++) {
+                    if (tile.layers[layer] != null && isPartitionVisible(layer - 1)) {
+                        g2d.drawImage(tile.layers[layer], x, y, null);
                     }
                 }
             }
         }
 
-        g2d.setStroke(new BasicStroke(2.0f));
-        for (int i = 0; i < graph.getVertices(); i++) {
-            Point p1 = nodePositions.get(i);
-            Node node1 = graph.getNode(i);
-            if (p1 != null && node1.getPartId() >= 0 && isPartitionVisible(node1.getPartId())) {
-                for (Node neighbor : node1.getNeighbours()) {
-                    Node node2 = graph.getNode(neighbor.getId());
-                    if (node2.getPartId() == node1.getPartId() && isPartitionVisible(node1.getPartId())) {
-                        g2d.setColor(PARTITION_COLORS[node1.getPartId() % PARTITION_COLORS.length]);
-                        Point p2 = nodePositions.get(neighbor.getId());
-                        if (p2 != null) {
-                            g2d.drawLine(p1.x + NODE_SIZE / 2, p1.y + NODE_SIZE / 2,
-                                    p2.x + NODE_SIZE / 2, p2.y + NODE_SIZE / 2);
-                        }
-                    }
+        if (!edges) {
+            Graphics2D world = (Graphics2D) g2d.create();
+            world.scale(zoomFactor, zoomFactor);
+            world.translate(-viewMinX, -viewMinY);
+            // tile rendering reused the query buffer
+            count = spatialIndex.query(viewMinX - NODE_SIZE, viewMinY - NODE_SIZE, viewMaxX + NODE_SIZE,
+                    viewMaxY + NODE_SIZE);
+            drawEdgeBundles(world, spatialIndex.getResult(), count, graph.getPartIds(), csr, n);
+            world.dispose();
+        }
+    }
+
+    /**
+     * Renders the partition layers of one tile: each partition's internal edges in its
+     * colour under its vertices. Layers are rendered for hidden partitions too, so
+     * toggling a partition only changes which layers are composed.
+     */
+    private LayerTileCache.Tile renderTile(int column, int row, boolean edges) {
+        int size = LayerTileCache.TILE_SIZE;
+        double minX = column * (double) size / zoomFactor;
+        double minY = row * (double) size / zoomFactor;
+        double maxX = (column + 1) * (double) size / zoomFactor;
+        double maxY = (row + 1) * (double) size / zoomFactor;
+        int[] partIds = graph.getPartIds();
+        CsrGraph csr = graph.getCsr();
+        int n = Math.min(nodeX.length, csr.getVertices());
+        int count = spatialIndex.query(minX - NODE_SIZE, minY - NODE_SIZE, maxX + NODE_SIZE, maxY + NODE_SIZE);
+        int[] candidates = spatialIndex.getResult();
+
+        // in live view the vertices FM has not reached yet still carry the previous partition
+        int layerCount = Math.max(1, graph.getPartitions() + 1);
+        for (int k = 0; k < count; k++) {
+            if (candidates[k] < n) {
+                layerCount = Math.max(layerCount, partIds[candidates[k]] + 2);
+            }
+        }
+        LayerTileCache.Tile tile = new LayerTileCache.Tile(layerCount);
+        Graphics2D[] graphics = new Graphics2D[layerCount];
+
+        if (edges) {
+            int[] offsets = csr.getOffsets();
+            int[] targets = csr.getTargets();
+            float cellSize = spatialIndex.getCellSize();
+            Path2D.Float[] paths = new Path2D.Float[layerCount];
+            for (int k = 0; k < count; k++) {
+                int v = candidates[k];
+                int partV = v < n ? partIds[v] : -1;
+                if (partV < 0 || partV + 1 >= layerCount) continue;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = targets[i];
+                    // each edge once from its lower end; longer edges come from the index's cell buckets
+                    if (u <= v || u >= n || partIds[u] != partV || Float.isNaN(nodeX[u])
+                            || Math.abs(nodeX[u] - nodeX[v]) > cellSize
+                            || Math.abs(nodeY[u] - nodeY[v]) > cellSize) continue;
+                    addEdge(paths, partV + 1, v, u, minX, minY, maxX, maxY);
+                }
+            }
+            int[] longEdges = spatialIndex.getLongEdges();
+            int longCount = spatialIndex.queryLongEdges(minX - 2, minY - 2, maxX + 2, maxY + 2);
+            int[] nearby = spatialIndex.getLongEdgeResult();
+            for (int k = 0; k < longCount; k++) {
+                int v = longEdges[2 * nearby[k]];
+                int u = longEdges[2 * nearby[k] + 1];
+                int partV = partIds[v];
+                if (partV >= 0 && partV == partIds[u] && partV + 1 < layerCount) {
+                    addEdge(paths, partV + 1, v, u, minX, minY, maxX, maxY);
+                }
+            }
+            for (int layer = 1; layer < layerCount; layer++) {
+                if (paths[layer] != null) {
+                    Graphics2D g = layerGraphics(tile, graphics, layer, column, row);
+                    g.setColor(PARTITION_COLORS[(layer - 1) % PARTITION_COLORS.length]);
+                    g.setStroke(new BasicStroke(2.0f));
+                    g.draw(paths[layer]);
                 }
             }
         }
 
-        for (int i = 0; i < graph.getVertices(); i++) {
-            Point p = nodePositions.get(i);
-            if (p != null) {
-                Node node = graph.getNode(i);
-                if (node.getPartId() >= 0 && !isPartitionVisible(node.getPartId())) continue;
+        double nodePixels = NODE_SIZE * zoomFactor;
+        if (nodePixels >= SQUARE_MIN_PIXELS) {
+            drawNodes(tile, graphics, candidates, count, partIds, n, nodePixels, column, row, minX, minY, maxX,
+                    maxY);
+        } else {
+            drawPoints(tile, graphics, candidates, count, partIds, n, column, row);
+        }
+        for (Graphics2D g : graphics) {
+            if (g != null) {
+                g.dispose();
+            }
+        }
+        return tile;
+    }
 
-                if (node.getPartId() >= 0) {
-                    g2d.setColor(PARTITION_COLORS[node.getPartId() % PARTITION_COLORS.length]);
+    // grey edges between different partitions or unassigned vertices, both ends visible
+    private void renderCutEdges(LayerTileCache.Tile tile, int column, int row) {
+        int size = LayerTileCache.TILE_SIZE;
+        double minX = column * (double) size / zoomFactor;
+        double minY = row * (double) size / zoomFactor;
+        double maxX = (column + 1) * (double) size / zoomFactor;
+        double maxY = (row + 1) * (double) size / zoomFactor;
+        int[] partIds = graph.getPartIds();
+        CsrGraph csr = graph.getCsr();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int n = Math.min(nodeX.length, csr.getVertices());
+        float cellSize = spatialIndex.getCellSize();
+        int count = spatialIndex.query(minX - NODE_SIZE, minY - NODE_SIZE, maxX + NODE_SIZE, maxY + NODE_SIZE);
+        int[] candidates = spatialIndex.getResult();
+
+        Path2D.Float[] path = new Path2D.Float[1];
+        for (int k = 0; k < count; k++) {
+            int v = candidates[k];
+            if (v >= n || !isPartitionVisible(partIds[v])) continue;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u <= v || u >= n || Float.isNaN(nodeX[u])
+                        || Math.abs(nodeX[u] - nodeX[v]) > cellSize || Math.abs(nodeY[u] - nodeY[v]) > cellSize
+                        || !isCutEdgeVisible(partIds[v], partIds[u])) continue;
+                addEdge(path, 0, v, u, minX, minY, maxX, maxY);
+            }
+        }
+        int[] longEdges = spatialIndex.getLongEdges();
+        int longCount = spatialIndex.queryLongEdges(minX - 2, minY - 2, maxX + 2, maxY + 2);
+        int[] nearby = spatialIndex.getLongEdgeResult();
+        for (int k = 0; k < longCount; k++) {
+            int v = longEdges[2 * nearby[k]];
+            int u = longEdges[2 * nearby[k] + 1];
+            if (isCutEdgeVisible(partIds[v], partIds[u])) {
+                addEdge(path, 0, v, u, minX, minY, maxX, maxY);
+            }
+        }
+
+        tile.cutEdges = null;
+        tile.cutVersion = visibilityVersion;
+        if (path[0] != null) {
+            tile.cutEdges = createTileImage();
+            Graphics2D g = tileGraphics(tile.cutEdges, column, row);
+            g.setColor(new Color(220, 220, 220));
+            g.setStroke(new BasicStroke(1.0f));
+            g.draw(path[0]);
+            g.dispose();
+        }
+    }
+
+    private boolean isCutEdgeVisible(int partV, int partU) {
+        return (partV != partU || partV < 0) && isPartitionVisible(partV) && isPartitionVisible(partU);
+    }
+
+    private void drawNodes(LayerTileCache.Tile tile, Graphics2D[] graphics, int[] candidates, int count,
+            int[] partIds, int n, double nodePixels, int column, int row, double minX, double minY, double maxX,
+            double maxY) {
+        boolean outlines = nodePixels >= OUTLINE_MIN_PIXELS;
+        boolean labels = zoomFactor >= LABEL_MIN_ZOOM;
+        FontMetrics fm = getFontMetrics(getFont());
+        int half = NODE_SIZE / 2;
+        for (int k = 0; k < count; k++) {
+            int v = candidates[k];
+            if (v >= n) continue;
+            int partId = partIds[v];
+            if (partId + 1 >= graphics.length) continue;
+            int x = (int) nodeX[v] - half;
+            int y = (int) nodeY[v] - half;
+            if (x > maxX + 1 || y > maxY + 1 || x + NODE_SIZE < minX - 1 || y + NODE_SIZE < minY - 1) continue;
+
+            Graphics2D g = layerGraphics(tile, graphics, partId + 1, column, row);
+            if (partId >= 0) {
+                g.setColor(PARTITION_COLORS[partId % PARTITION_COLORS.length]);
+            } else {
+                g.setColor(outlines ? Color.WHITE : UNASSIGNED_POINT_COLOR);
+            }
+            g.fillRect(x, y, NODE_SIZE, NODE_SIZE);
+            if (!outlines) continue;
+            // the layer may not have drawn edges in this tile, so the stroke is set here
+            g.setColor(Color.BLACK);
+            g.setStroke(OUTLINE_STROKE);
+            g.drawRect(x, y, NODE_SIZE, NODE_SIZE);
+
+            if (labels) {
+                String nodeId = String.valueOf(v);
+                int textX = x + (NODE_SIZE - fm.stringWidth(nodeId)) / 2;
+                int textY = y + ((NODE_SIZE + fm.getAscent()) / 2);
+                g.drawString(nodeId, textX, textY);
+            }
+        }
+    }
+
+    // vertices smaller than a few pixels: one pixel each, or heatmap cells when they pile up
+    private void drawPoints(LayerTileCache.Tile tile, Graphics2D[] graphics, int[] candidates, int count,
+            int[] partIds, int n, int column, int row) {
+        int size = LayerTileCache.TILE_SIZE;
+        double verticesPerPixel = spatialIndex.getDensity() / (zoomFactor * zoomFactor);
+        double verticesPerCell = verticesPerPixel * HEATMAP_CELL_PIXELS * HEATMAP_CELL_PIXELS;
+        boolean heatmap = verticesPerCell > 1;
+        int unassignedSlot = PARTITION_COLORS.length;
+        for (int layer = 0; layer < tile.layers.length; layer++) {
+            int partId = layer - 1;
+            pointRaster.reset(size, size);
+            if (heatmap) {
+                pointRaster.startHeatmap(HEATMAP_CELL_PIXELS);
+            }
+            boolean plotted = false;
+            for (int k = 0; k < count; k++) {
+                int v = candidates[k];
+                if (v >= n || partIds[v] != partId) continue;
+                int x = (int) Math.floor(nodeX[v] * zoomFactor) - column * size;
+                int y = (int) Math.floor(nodeY[v] * zoomFactor) - row * size;
+                if (x < 0 || y < 0 || x >= size || y >= size) continue;
+                int slot = partId >= 0 ? partId % PARTITION_COLORS.length : unassignedSlot;
+                if (heatmap) {
+                    pointRaster.count(x, y, slot);
                 } else {
-                    g2d.setColor(Color.WHITE);
+                    pointRaster.plot(x, y, slot);
                 }
-                g2d.fillRect(p.x, p.y, NODE_SIZE, NODE_SIZE);
-                g2d.setColor(Color.BLACK);
-                g2d.drawRect(p.x, p.y, NODE_SIZE, NODE_SIZE);
+                plotted = true;
+            }
+            if (!plotted) continue;
+            if (heatmap) {
+                // cells with four times the average count are fully saturated in every tile
+                pointRaster.finishHeatmap((int) Math.ceil(4 * verticesPerCell));
+            }
+            Graphics2D g = layerGraphics(tile, graphics, layer, column, row);
+            g.drawImage(pointRaster.getImage(), new AffineTransform(1 / zoomFactor, 0, 0, 1 / zoomFactor,
+                    column * (double) size / zoomFactor, row * (double) size / zoomFactor), null);
+        }
+    }
+
+    // creates the layer image on first use; its graphics draw in world coordinates
+    private Graphics2D layerGraphics(LayerTileCache.Tile tile, Graphics2D[] graphics, int layer, int column,
+            int row) {
+        if (graphics[layer] == null) {
+            tile.layers[layer] = createTileImage();
+            graphics[layer] = tileGraphics(tile.layers[layer], column, row);
+        }
+        return graphics[layer];
+    }
 
-                String nodeId = String.valueOf(i);
-                FontMetrics fm = g2d.getFontMetrics();
-                int textX = p.x + (NODE_SIZE - fm.stringWidth(nodeId)) / 2;
-                int textY = p.y + ((NODE_SIZE + fm.getAscent()) / 2);
-                g2d.drawString(nodeId, textX, textY);
+    private Graphics2D tileGraphics(BufferedImage image, int column, int row) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(getFont());
+        g.translate(-column * (double) LayerTileCache.TILE_SIZE, -row * (double) LayerTileCache.TILE_SIZE);
+        g.scale(zoomFactor, zoomFactor);
+        return g;
+    }
+
+    private BufferedImage createTileImage() {
+        int size = LayerTileCache.TILE_SIZE;
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        return configuration != null
+                ? configuration.createCompatibleImage(size, size, Transparency.TRANSLUCENT)
+                : new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Replaces the individual edges by one line per pair of visible partitions, from
+     * the centroid of one partition's visible vertices to the other's, as wide as the
+     * logarithm of the number of cut edges between them. Edges with at least one end
+     * among the visible vertices are counted once.
+     */
+    private void drawEdgeBundles(Graphics2D g2d, int[] candidates, int count, int[] partIds, CsrGraph csr, int n) {
+        int parts = 0;
+        for (int k = 0; k < count; k++) {
+            int v = candidates[k];
+            if (v < n) {
+                parts = Math.max(parts, partIds[v] + 1);
             }
         }
+        if (parts < 2 || parts > MAX_BUNDLED_PARTITIONS) return;
+
+        if (visitStamp.length < n) {
+            visitStamp = new int[n];
+            frame = 0;
+        }
+        frame++;
+        double[] sumX = new double[parts];
+        double[] sumY = new double[parts];
+        int[] sizes = new int[parts];
+        for (int k = 0; k < count; k++) {
+            int v = candidates[k];
+            if (v >= n) continue;
+            visitStamp[v] = frame;
+            int partId = partIds[v];
+            if (partId >= 0 && partId < parts && isPartitionVisible(partId)) {
+                sumX[partId] += nodeX[v];
+                sumY[partId] += nodeY[v];
+                sizes[partId]++;
+            }
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] cut = new int[parts * parts];
+        for (int k = 0; k < count; k++) {
+            int v = candidates[k];
+            if (v >= n) continue;
+            int partV = partIds[v];
+            if (partV < 0 || partV >= parts || sizes[partV] == 0) continue;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u >= n || (u < v && visitStamp[u] == frame)) continue;
+                int partU = partIds[u];
+                if (partU >= 0 && partU < parts && partU != partV && sizes[partU] > 0) {
+                    cut[Math.min(partU, partV) * parts + Math.max(partU, partV)]++;
+                }
+            }
+        }
+
+        g2d.setColor(new Color(60, 60, 60, 160));
+        for (int p = 0; p < parts; p++) {
+            for (int q = p + 1; q < parts; q++) {
+                int edges = cut[p * parts + q];
+                if (edges == 0) continue;
+                float width = (float) ((1 + Math.log(edges) / Math.log(2)) / zoomFactor);
+                g2d.setStroke(new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                g2d.draw(new Line2D.Double(sumX[p] / sizes[p], sumY[p] / sizes[p], sumX[q] / sizes[q],
+                        sumY[q] / sizes[q]));
+            }
+        }
+    }
+
+    // adds the edge to paths[slot] when it can cross the given area
+    private void addEdge(Path2D.Float[] paths, int slot, int v, int u, double minX, double minY, double maxX,
+            double maxY) {
+        float x1 = nodeX[v], y1 = nodeY[v], x2 = nodeX[u], y2 = nodeY[u];
+        if (Math.max(x1, x2) < minX - 2 || Math.min(x1, x2) > maxX + 2
+                || Math.max(y1, y2) < minY - 2 || Math.min(y1, y2) > maxY + 2) return;
+        if (paths[slot] == null) {
+            paths[slot] = new Path2D.Float();
+        }
+        paths[slot].moveTo(x1, y1);
+        paths[slot].lineTo(x2, y2);
     }
 
     @Override
@@ -177,14 +742,17 @@ public class GraphPanel extends JPanel implements MouseListener, MouseMotionList
         Graphics2D g2d = (Graphics2D) g.create();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        g2d.scale(zoomFactor, zoomFactor);
-        g2d.translate(-viewOffset.x, -viewOffset.y);
-
         if (graph == null) {
+            g2d.scale(zoomFactor, zoomFactor);
+            g2d.translate(-viewOffset.x, -viewOffset.y);
             g2d.setColor(Color.GRAY);
             g2d.drawString("No graph loaded", getWidth() / 2 - 40, getHeight() / 2);
         } else {
+            // tiles are blitted in screen space; drawGraph applies the view transform itself
             drawGraph(g2d);
+            if (cutSamples > 0) {
+                drawCutPlot(g2d);
+            }
         }
         g2d.dispose();
     }
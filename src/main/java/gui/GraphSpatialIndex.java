@@ -0,0 +1,278 @@
+package gui;
+
+import model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the vertex centres, stored CSR style: the vertices of cell c
+ * are cellVertices[cellStart[c] .. cellStart[c + 1]). A query returns the vertices
+ * of every cell overlapping the rectangle widened by one cell, which contains both
+ * ends of every edge no longer than a cell that crosses the rectangle. Longer
+ * edges are kept in a separate list and bucketed by every cell their line passes
+ * through on a second grid, so a tile only looks at the long edges near it. That
+ * grid is coarsened until the lines cross a few of its cells on average, which
+ * keeps the buckets linear in the number of long edges.
+ */
+final class GraphSpatialIndex {
+    // average number of vertices per cell; small enough that culled cells stay cheap
+    private static final int VERTICES_PER_CELL = 16;
+    // average number of long edge grid cells a long edge may be bucketed in
+    private static final int LONG_CELLS_PER_EDGE = 4;
+
+    private final float minX;
+    private final float minY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellVertices;
+    private final int[] longEdges;
+    private final float longCellSize;
+    private final int longColumns;
+    private final int longRows;
+    private final int[] longCellStart;
+    private final int[] longCellEdges;
+    private final double density;
+    private int[] result = new int[256];
+    // long edge e was last collected by the query with this stamp
+    private final int[] edgeStamp;
+    private int stamp;
+    private int[] longResult = new int[256];
+
+    /**
+     * Indexes the vertices whose centre is not NaN. Each undirected edge of the CSR
+     * between two indexed vertices that is longer than a cell in x or y goes into
+     * the long edge list once, as a (lower id, higher id) pair.
+     */
+    GraphSpatialIndex(float[] x, float[] y, CsrGraph csr) {
+        int n = x.length;
+        float lowX = Float.MAX_VALUE, lowY = Float.MAX_VALUE, highX = -Float.MAX_VALUE, highY = -Float.MAX_VALUE;
+        int indexed = 0;
+        for (int v = 0; v < n; v++) {
+            if (!Float.isNaN(x[v])) {
+                lowX = Math.min(lowX, x[v]);
+                lowY = Math.min(lowY, y[v]);
+                highX = Math.max(highX, x[v]);
+                highY = Math.max(highY, y[v]);
+                indexed++;
+            }
+        }
+        if (indexed == 0) {
+            lowX = lowY = highX = highY = 0;
+        }
+        float width = Math.max(1, highX - lowX);
+        float height = Math.max(1, highY - lowY);
+        float cell = (float) Math.sqrt(width * height * VERTICES_PER_CELL / Math.max(1, indexed));
+        this.minX = lowX;
+        this.minY = lowY;
+        this.cellSize = Math.max(1, cell);
+        this.columns = (int) (width / cellSize) + 1;
+        this.rows = (int) (height / cellSize) + 1;
+        this.density = indexed / ((double) columns * rows * cellSize * cellSize);
+
+        cellStart = new int[columns * rows + 1];
+        for (int v = 0; v < n; v++) {
+            if (!Float.isNaN(x[v])) {
+                cellStart[cellOf(x[v], y[v]) + 1]++;
+            }
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellVertices = new int[indexed];
+        int[] next = Arrays.copyOf(cellStart, columns * rows);
+        for (int v = 0; v < n; v++) {
+            if (!Float.isNaN(x[v])) {
+                cellVertices[next[cellOf(x[v], y[v])]++] = v;
+            }
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int vertices = Math.min(n, csr.getVertices());
+        int count = 0;
+        int[] edges = new int[16];
+        for (int v = 0; v < vertices; v++) {
+            if (Float.isNaN(x[v])) {
+                continue;
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u > v && u < n && !Float.isNaN(x[u])
+                        && (Math.abs(x[u] - x[v]) > cellSize || Math.abs(y[u] - y[v]) > cellSize)) {
+                    if (count + 2 > edges.length) {
+                        edges = Arrays.copyOf(edges, edges.length * 2);
+                    }
+                    edges[count++] = v;
+                    edges[count++] = u;
+                }
+            }
+        }
+        longEdges = Arrays.copyOf(edges, count);
+
+        // a line crosses about (|dx| + |dy|) / size + 1 cells of a grid with that cell size
+        double extent = 0;
+        for (int i = 0; i < count; i += 2) {
+            extent += Math.abs(x[edges[i + 1]] - x[edges[i]]) + Math.abs(y[edges[i + 1]] - y[edges[i]]);
+        }
+        longCellSize = (float) Math.max(cellSize, extent / Math.max(1, count / 2) / (LONG_CELLS_PER_EDGE - 1));
+        longColumns = (int) (columns * (double) cellSize / longCellSize) + 1;
+        longRows = (int) (rows * (double) cellSize / longCellSize) + 1;
+        int longCells = longColumns * longRows;
+        longCellStart = new int[longCells + 1];
+        for (int e = 0; e < count / 2; e++) {
+            addCrossedCells(x, y, e, longCellStart, null);
+        }
+        for (int c = 0; c < longCells; c++) {
+            longCellStart[c + 1] += longCellStart[c];
+        }
+        longCellEdges = new int[longCellStart[longCells]];
+        next = Arrays.copyOf(longCellStart, longCells);
+        for (int e = 0; e < count / 2; e++) {
+            addCrossedCells(x, y, e, next, longCellEdges);
+        }
+        edgeStamp = new int[count / 2];
+    }
+
+    /**
+     * Visits the long edge grid cells the line of long edge e passes through,
+     * column by column: within a column the line covers the rows between its y at
+     * the column's two borders. Without cellEdges the visit only counts the edge
+     * in next[cell + 1].
+     */
+    private void addCrossedCells(float[] x, float[] y, int e, int[] next, int[] cellEdges) {
+        int v = longEdges[2 * e];
+        int u = longEdges[2 * e + 1];
+        float x1 = x[v], y1 = y[v], x2 = x[u], y2 = y[u];
+        if (x1 > x2) {
+            float swap = x1;
+            x1 = x2;
+            x2 = swap;
+            swap = y1;
+            y1 = y2;
+            y2 = swap;
+        }
+        double slope = x2 > x1 ? (y2 - y1) / (double) (x2 - x1) : 0;
+        int firstColumn = clamp((int) Math.floor((x1 - minX) / longCellSize), longColumns);
+        int lastColumn = clamp((int) Math.floor((x2 - minX) / longCellSize), longColumns);
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            double fromX = Math.max(x1, minX + column * (double) longCellSize);
+            double toX = Math.min(x2, minX + (column + 1) * (double) longCellSize);
+            double fromY = x2 > x1 ? y1 + (fromX - x1) * slope : y1;
+            double toY = x2 > x1 ? y1 + (toX - x1) * slope : y2;
+            int firstRow = clamp((int) Math.floor((Math.min(fromY, toY) - minY) / longCellSize), longRows);
+            int lastRow = clamp((int) Math.floor((Math.max(fromY, toY) - minY) / longCellSize), longRows);
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (cellEdges == null) {
+                    next[row * longColumns + column + 1]++;
+                } else {
+                    cellEdges[next[row * longColumns + column]++] = e;
+                }
+            }
+        }
+    }
+
+    float getCellSize() {
+        return cellSize;
+    }
+
+    // average number of vertices per square unit of the grid area
+    double getDensity() {
+        return density;
+    }
+
+    // (u, v) pairs of the edges longer than a cell, each undirected edge once; edge e is at 2 * e
+    int[] getLongEdges() {
+        return longEdges;
+    }
+
+    /**
+     * Collects the long edges passing through the long edge grid cells that overlap
+     * the rectangle, each once, and returns how many there are; their numbers are in
+     * {@link #getLongEdgeResult()} until the next call. Callers still clip the edges
+     * they draw.
+     */
+    int queryLongEdges(double fromX, double fromY, double toX, double toY) {
+        return queryLongEdges(fromX, fromY, toX, toY, Integer.MAX_VALUE);
+    }
+
+    // as above, but stops once limit edges are collected
+    int queryLongEdges(double fromX, double fromY, double toX, double toY, int limit) {
+        if (toX < fromX || toY < fromY || longEdges.length == 0) {
+            return 0;
+        }
+        int firstColumn = clamp((int) Math.floor((fromX - minX) / longCellSize), longColumns);
+        int lastColumn = clamp((int) Math.floor((toX - minX) / longCellSize), longColumns);
+        int firstRow = clamp((int) Math.floor((fromY - minY) / longCellSize), longRows);
+        int lastRow = clamp((int) Math.floor((toY - minY) / longCellSize), longRows);
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(edgeStamp, 0);
+            stamp = 1;
+        }
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int to = longCellStart[row * longColumns + lastColumn + 1];
+            for (int i = longCellStart[row * longColumns + firstColumn]; i < to; i++) {
+                int e = longCellEdges[i];
+                if (edgeStamp[e] == stamp) {
+                    continue;
+                }
+                edgeStamp[e] = stamp;
+                if (count == longResult.length) {
+                    longResult = Arrays.copyOf(longResult, count * 2);
+                }
+                longResult[count++] = e;
+                if (count == limit) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    int[] getLongEdgeResult() {
+        return longResult;
+    }
+
+    /**
+     * Collects the vertices of the cells overlapping the rectangle widened by one
+     * cell on every side and returns how many there are; they are in
+     * {@link #getResult()} until the next query. The result may include vertices
+     * outside the rectangle, so callers still test the positions they draw.
+     */
+    int query(double fromX, double fromY, double toX, double toY) {
+        int firstColumn = clamp((int) Math.floor((fromX - minX) / cellSize) - 1, columns);
+        int lastColumn = clamp((int) Math.floor((toX - minX) / cellSize) + 1, columns);
+        int firstRow = clamp((int) Math.floor((fromY - minY) / cellSize) - 1, rows);
+        int lastRow = clamp((int) Math.floor((toY - minY) / cellSize) + 1, rows);
+        if (toX < fromX || toY < fromY) {
+            return 0;
+        }
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int from = cellStart[row * columns + firstColumn];
+            int to = cellStart[row * columns + lastColumn + 1];
+            if (count + to - from > result.length) {
+                result = Arrays.copyOf(result, Math.max(result.length * 2, count + to - from));
+            }
+            System.arraycopy(cellVertices, from, result, count, to - from);
+            count += to - from;
+        }
+        return count;
+    }
+
+    int[] getResult() {
+        return result;
+    }
+
+    private int cellOf(float x, float y) {
+        int column = Math.min(columns - 1, (int) ((x - minX) / cellSize));
+        int row = Math.min(rows - 1, (int) ((y - minY) / cellSize));
+        return row * columns + column;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
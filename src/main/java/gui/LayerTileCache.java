@@ -0,0 +1,138 @@
+package gui;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendered screen tiles of the graph, one image per partition layer, kept in
+ * least-recently-used order and evicted once their images exceed the byte budget.
+ * Tiles are addressed by zoom, whether edges were drawn and the tile column and
+ * row in the zoomed pixel grid, so panning at a fixed zoom only renders the tiles
+ * that scroll into view.
+ */
+final class LayerTileCache {
+    static final int TILE_SIZE = 256;
+    private static final long IMAGE_BYTES = 4L * TILE_SIZE * TILE_SIZE;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Tile> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    LayerTileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    Tile get(double zoom, boolean edges, int column, int row) {
+        return tiles.get(new Key(zoom, edges, column, row));
+    }
+
+    void put(double zoom, boolean edges, int column, int row, Tile tile) {
+        Tile old = tiles.put(new Key(zoom, edges, column, row), tile);
+        if (old != null) {
+            bytes -= old.bytes();
+        }
+        bytes += tile.bytes();
+        evict();
+    }
+
+    // accounts for images added to or removed from a cached tile
+    void resized(long delta) {
+        bytes += delta;
+        evict();
+    }
+
+    // drops the tiles rendered at other zooms and the tiles with the given ids at this one
+    void invalidate(double zoom, Set<Long> tileIds) {
+        long zoomBits = Double.doubleToLongBits(zoom);
+        Iterator<Map.Entry<Key, Tile>> entries = tiles.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, Tile> entry = entries.next();
+            Key key = entry.getKey();
+            if (key.zoomBits != zoomBits || tileIds.contains(tileId(key.column, key.row))) {
+                bytes -= entry.getValue().bytes();
+                entries.remove();
+            }
+        }
+    }
+
+    static long tileId(int column, int row) {
+        return (long) column << 32 | (row & 0xFFFFFFFFL);
+    }
+
+    void clear() {
+        tiles.clear();
+        bytes = 0;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Tile>> eldest = tiles.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Layer images of one tile: layers[partId + 1] holds the vertices and internal
+     * edges of a partition, layers[0] the unassigned vertices, null where the tile
+     * has none. The grey cut edges depend on which partitions are visible and are
+     * kept with the visibility version they were drawn for.
+     */
+    static final class Tile {
+        BufferedImage[] layers;
+        BufferedImage cutEdges;
+        int cutVersion = -1;
+
+        Tile(int layerCount) {
+            layers = new BufferedImage[layerCount];
+        }
+
+        long bytes() {
+            long total = cutEdges == null ? 0 : IMAGE_BYTES;
+            for (BufferedImage layer : layers) {
+                if (layer != null) {
+                    total += IMAGE_BYTES;
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class Key {
+        private final long zoomBits;
+        private final boolean edges;
+        private final int column;
+        private final int row;
+
+        Key(double zoom, boolean edges, int column, int row) {
+            this.zoomBits = Double.doubleToLongBits(zoom);
+            this.edges = edges;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return zoomBits == other.zoomBits && edges == other.edges && column == other.column && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(zoomBits);
+            hash = 31 * hash + (edges ? 1 : 0);
+            hash = 31 * hash + column;
+            return 31 * hash + row;
+        }
+    }
+}
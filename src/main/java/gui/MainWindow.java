@@ -51,6 +51,11 @@ public class MainWindow extends JFrame {
         graphPanel.repaint();
     }
 
+    public void updateGraph(Graph graph, GraphPanel.Layout layout) {
+        graphPanel.setGraph(graph, layout);
+        graphPanel.repaint();
+    }
+
     public ControlPanel getControlPanel() {
         return controlPanel;
     }
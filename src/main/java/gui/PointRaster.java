@@ -0,0 +1,93 @@
+package gui;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * ARGB image written pixel by pixel, for zoom levels at which a vertex
+ * covers a pixel or less. Vertices are either plotted as single pixels or counted
+ * into square heatmap cells coloured by the most common colour in the cell, with
+ * the opacity growing with the number of vertices. The image is reused for
+ * every raster of the same size.
+ */
+final class PointRaster {
+    private final int[] colors;
+    private BufferedImage image;
+    private int[] pixels = new int[0];
+    private int width;
+    private int height;
+    private int cellSize;
+    private int cellColumns;
+    private int[] cellCounts = new int[0];
+
+    // colors[slot] are the opaque RGB colours vertices can be plotted or counted with
+    PointRaster(int[] colors) {
+        this.colors = colors;
+    }
+
+    void reset(int width, int height) {
+        if (image == null || this.width != width || this.height != height) {
+            this.width = Math.max(1, width);
+            this.height = Math.max(1, height);
+            image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        } else {
+            Arrays.fill(pixels, 0);
+        }
+    }
+
+    void plot(int x, int y, int slot) {
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            pixels[y * width + x] = 0xFF000000 | colors[slot];
+        }
+    }
+
+    void startHeatmap(int cellSize) {
+        this.cellSize = cellSize;
+        this.cellColumns = (width + cellSize - 1) / cellSize;
+        int cells = cellColumns * ((height + cellSize - 1) / cellSize) * colors.length;
+        if (cellCounts.length < cells) {
+            cellCounts = new int[cells];
+        } else {
+            Arrays.fill(cellCounts, 0, cells, 0);
+        }
+    }
+
+    void count(int x, int y, int slot) {
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            cellCounts[((y / cellSize) * cellColumns + x / cellSize) * colors.length + slot]++;
+        }
+    }
+
+    // writes the counted cells into the image; opacity is logarithmic in the count up to saturation
+    void finishHeatmap(int saturation) {
+        int cellRows = (height + cellSize - 1) / cellSize;
+        int slots = colors.length;
+        double scale = 175 / Math.log1p(Math.max(1, saturation));
+        for (int cell = 0; cell < cellColumns * cellRows; cell++) {
+            int total = 0;
+            int dominant = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                int slotCount = cellCounts[cell * slots + slot];
+                total += slotCount;
+                if (slotCount > cellCounts[cell * slots + dominant]) {
+                    dominant = slot;
+                }
+            }
+            if (total == 0) {
+                continue;
+            }
+            int argb = (80 + (int) Math.min(175, scale * Math.log1p(total))) << 24 | colors[dominant];
+            int x0 = (cell % cellColumns) * cellSize;
+            int y0 = (cell / cellColumns) * cellSize;
+            for (int y = y0; y < Math.min(height, y0 + cellSize); y++) {
+                Arrays.fill(pixels, y * width + x0, y * width + Math.min(width, x0 + cellSize), argb);
+            }
+        }
+    }
+
+    BufferedImage getImage() {
+        return image;
+    }
+}
@@ -3,96 +3,88 @@ package io;
 import model.*;
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class FileWriter {
+    private static final long SEPARATOR = 0xDEADBEEFCAFEBABEL;
+    private static final int BUFFER_SIZE = 1 << 16;
 
     public static boolean isInPartition(PartitionData partitionData, int partId, int vertex) {
         Partition partition = partitionData.getPartitions().get(partId);
-        return partition.getPartitionNodes().contains(vertex);
+        return partition.contains(vertex);
     }
 
     public static List<Integer> getPartitionNeighbors(Graph graph, PartitionData partitionData, int partId,
             int vertex) {
         List<Integer> neighbors = new ArrayList<>();
-        Node node = graph.getNode(vertex);
-        for (Node neighbor : node.getNeighbours()) {
-            if (isInPartition(partitionData, partId, neighbor.getId())) {
-                neighbors.add(neighbor.getId());
+        CsrGraph csr = graph.getCsr();
+        int[] targets = csr.getTargets();
+        for (int i = csr.getOffsets()[vertex]; i < csr.getOffsets()[vertex + 1]; i++) {
+            if (isInPartition(partitionData, partId, targets[i])) {
+                neighbors.add(targets[i]);
             }
         }
         return neighbors;
     }
 
+    /**
+     * Writes the graph with its adjacency restricted to each partition. The layout
+     * is computed once from the partition array in O(V + E); see {@link PartitionedLayout}.
+     */
     public static void writeText(String filename, ParsedData data, PartitionData partitionData, Graph graph,
-            int parts) {
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(filename), "UTF-8"))) {
-            writer.write(data.getLine1() + "\n");
-
-            List<Integer> line2 = data.getLine2();
-            for (int i = 0; i < line2.size(); i++) {
-                writer.write(line2.get(i).toString());
-                if (i < line2.size() - 1)
-                    writer.write(";");
-            }
-            writer.write("\n");
-
-            List<Integer> line3 = data.getLine3();
-            for (int i = 0; i < line3.size(); i++) {
-                writer.write(line3.get(i).toString());
-                if (i < line3.size() - 1)
-                    writer.write(";");
-            }
-            writer.write("\n");
-
-            List<List<Integer>> sortedVerticesPerPart = new ArrayList<>();
-            for (int part = 0; part < parts; part++) {
-                Partition partition = partitionData.getPartitions().get(part);
-                List<Integer> sortedVertices = new ArrayList<>(partition.getPartitionNodes());
-                Collections.sort(sortedVertices);
-                sortedVerticesPerPart.add(sortedVertices);
-            }
+            int parts) throws IOException {
+        try (ChannelOutput out = new ChannelOutput(filename, false)) {
+            out.writeDecimal(data.getLine1());
+            out.writeByte('\n');
+            writeDecimalLine(out, data.getLine2Array());
+            writeDecimalLine(out, data.getLine3Array());
 
+            PartitionedLayout layout = new PartitionedLayout(graph, partitionData, parts);
+            int[] order = layout.order;
             for (int part = 0; part < parts; part++) {
-                List<Integer> sortedVertices = sortedVerticesPerPart.get(part);
-                for (int vertex : sortedVertices) {
-                    writer.write(String.valueOf(vertex));
-                    List<Integer> neighbors = getPartitionNeighbors(graph, partitionData, part, vertex);
-                    Collections.sort(neighbors);
-                    for (int j = 0; j < neighbors.size(); j++) {
-                        writer.write(";");
-                        writer.write(String.valueOf(neighbors.get(j)));
+                int end = layout.partStart[part + 1];
+                for (int index = layout.partStart[part]; index < end; index++) {
+                    int vertex = order[index];
+                    out.writeDecimal(vertex);
+                    for (int i = layout.offsets[vertex]; i < layout.offsets[vertex + 1]; i++) {
+                        if (layout.partOf[layout.targets[i]] == part) {
+                            out.writeByte(';');
+                            out.writeDecimal(layout.targets[i]);
+                        }
                     }
-                    boolean isLast = (part == parts - 1) && (vertex == sortedVertices.get(sortedVertices.size() - 1));
+                    boolean isLast = part == parts - 1 && index == end - 1;
                     if (!isLast)
-                        writer.write(";");
+                        out.writeByte(';');
                 }
             }
-            writer.write("\n");
+            out.writeByte('\n');
 
             int lastPos = 0;
             for (int part = 0; part < parts; part++) {
-                List<Integer> sortedVertices = sortedVerticesPerPart.get(part);
-                if (part == 0) {
-                    writer.write("0");
-                } else {
-                    writer.write(String.valueOf(lastPos));
-                }
+                out.writeDecimal(lastPos);
                 int pos = lastPos;
-                for (int vertex : sortedVertices) {
-                    List<Integer> neighbors = getPartitionNeighbors(graph, partitionData, part, vertex);
-                    int neighborCount = neighbors.size();
-                    pos += (neighborCount + 1);
-                    writer.write(";" + pos);
+                for (int index = layout.partStart[part]; index < layout.partStart[part + 1]; index++) {
+                    pos += layout.internalDegree[order[index]] + 1;
+                    out.writeByte(';');
+                    out.writeDecimal(pos);
                 }
                 lastPos = pos;
-                writer.write("\n");
+                out.writeByte('\n');
             }
+        }
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static void writeDecimalLine(ChannelOutput out, int[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            out.writeDecimal(values[i]);
+            if (i < values.length - 1)
+                out.writeByte(';');
         }
+        out.writeByte('\n');
     }
 
     public static void encodeVByte(OutputStream out, int value) throws IOException {
@@ -104,68 +96,188 @@ public class FileWriter {
     }
 
     public static void writeBinary(String filename, ParsedData data, PartitionData partitionData, Graph graph,
-            int parts) {
-        try (FileOutputStream out = new FileOutputStream(filename)) {
-            long separator = 0xDEADBEEFCAFEBABEL;
+            int parts) throws IOException {
+        writeBinary(filename, data, partitionData, graph, parts, false);
+    }
 
-            encodeVByte(out, data.getLine1());
-            out.write(ByteBuffer.allocate(8).putLong(separator).array());
+    // with force the call returns only once the file has reached the storage device
+    public static void writeBinary(String filename, ParsedData data, PartitionData partitionData, Graph graph,
+            int parts, boolean force) throws IOException {
+        try (ChannelOutput out = new ChannelOutput(filename, force)) {
+            out.writeVByte(data.getLine1());
+            out.writeLong(SEPARATOR);
 
-            for (int val : data.getLine2())
-                encodeVByte(out, val);
-            out.write(ByteBuffer.allocate(8).putLong(separator).array());
+            for (int val : data.getLine2Array())
+                out.writeVByte(val);
+            out.writeLong(SEPARATOR);
 
-            for (int val : data.getLine3())
-                encodeVByte(out, val);
-            out.write(ByteBuffer.allocate(8).putLong(separator).array());
+            for (int val : data.getLine3Array())
+                out.writeVByte(val);
+            out.writeLong(SEPARATOR);
 
-            List<List<Integer>> sortedVerticesPerPart = new ArrayList<>();
+            PartitionedLayout layout = new PartitionedLayout(graph, partitionData, parts);
+            int[] order = layout.order;
             for (int part = 0; part < parts; part++) {
-                Partition partition = partitionData.getPartitions().get(part);
-                List<Integer> sortedVertices = new ArrayList<>(partition.getPartitionNodes());
-                Collections.sort(sortedVertices);
-                sortedVerticesPerPart.add(sortedVertices);
+                for (int index = layout.partStart[part]; index < layout.partStart[part + 1]; index++) {
+                    int vertex = order[index];
+                    out.writeVByte(vertex);
+                    for (int i = layout.offsets[vertex]; i < layout.offsets[vertex + 1]; i++) {
+                        if (layout.partOf[layout.targets[i]] == part) {
+                            out.writeVByte(layout.targets[i]);
+                        }
+                    }
+                }
             }
+            out.writeLong(SEPARATOR);
 
+            // the first pointer section is always closed by a separator, the last one never
+            int lastPos = 0;
             for (int part = 0; part < parts; part++) {
-                List<Integer> sortedVertices = sortedVerticesPerPart.get(part);
-                for (int vertex : sortedVertices) {
-                    encodeVByte(out, vertex);
-                    List<Integer> neighbors = getPartitionNeighbors(graph, partitionData, part, vertex);
-                    Collections.sort(neighbors);
-                    for (int neighbor : neighbors) {
-                        encodeVByte(out, neighbor);
+                out.writeVByte(lastPos);
+                int pos = lastPos;
+                for (int index = layout.partStart[part]; index < layout.partStart[part + 1]; index++) {
+                    pos += layout.internalDegree[order[index]] + 1;
+                    out.writeVByte(pos);
+                }
+                lastPos = pos;
+                if (part == 0 || part < parts - 1)
+                    out.writeLong(SEPARATOR);
+            }
+        }
+    }
+
+    /**
+     * Vertices grouped by partition in ascending id order (a counting sort over the
+     * partition array) and the number of neighbours each vertex has inside its own
+     * partition. CSR rows are sorted, so filtering a row keeps the neighbours sorted.
+     */
+    private static final class PartitionedLayout {
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] partOf;
+        private final int[] partStart;
+        private final int[] order;
+        private final int[] internalDegree;
+
+        PartitionedLayout(Graph graph, PartitionData partitionData, int parts) {
+            CsrGraph csr = graph.getCsr();
+            int n = csr.getVertices();
+            offsets = csr.getOffsets();
+            targets = csr.getTargets();
+            partOf = new int[n];
+            partStart = new int[parts + 1];
+            for (int v = 0; v < n; v++) {
+                int part = partitionData.getPartOf(v);
+                partOf[v] = part < parts ? part : -1;
+                if (partOf[v] >= 0) {
+                    partStart[partOf[v] + 1]++;
+                }
+            }
+            for (int part = 0; part < parts; part++) {
+                partStart[part + 1] += partStart[part];
+            }
+            order = new int[partStart[parts]];
+            int[] next = Arrays.copyOf(partStart, parts);
+            internalDegree = new int[n];
+            for (int v = 0; v < n; v++) {
+                int part = partOf[v];
+                if (part < 0) {
+                    continue;
+                }
+                order[next[part]++] = v;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (partOf[targets[i]] == part) {
+                        internalDegree[v]++;
                     }
                 }
             }
-            out.write(ByteBuffer.allocate(8).putLong(separator).array());
+        }
+    }
 
-            encodeVByte(out, 0);
-            int lastPos = 0;
-            for (int vertex : sortedVerticesPerPart.get(0)) {
-                List<Integer> neighbors = getPartitionNeighbors(graph, partitionData, 0, vertex);
-                int neighborCount = neighbors.size();
-                lastPos += (neighborCount + 1);
-                encodeVByte(out, lastPos);
+    /**
+     * Output of decimal text, vbytes and big-endian longs encoded into one direct
+     * buffer and handed to the file channel whenever it fills up. With force set,
+     * close waits until the data and file size have reached the disk.
+     */
+    private static final class ChannelOutput implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final boolean force;
+
+        ChannelOutput(String filename, boolean force) throws IOException {
+            this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.force = force;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
             }
-            out.write(ByteBuffer.allocate(8).putLong(separator).array());
+            buffer.put((byte) value);
+        }
 
-            for (int part = 1; part < parts; part++) {
-                encodeVByte(out, lastPos);
-                int pos = lastPos;
-                for (int vertex : sortedVerticesPerPart.get(part)) {
-                    List<Integer> neighbors = getPartitionNeighbors(graph, partitionData, part, vertex);
-                    int neighborCount = neighbors.size();
-                    pos += (neighborCount + 1);
-                    encodeVByte(out, pos);
+        void writeDecimal(int value) throws IOException {
+            if (buffer.remaining() < 11) {
+                flushBuffer();
+            }
+            if (value < 0) {
+                if (value == Integer.MIN_VALUE) {
+                    buffer.put(String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+                    return;
                 }
-                lastPos = pos;
-                if (part < parts - 1)
-                    out.write(ByteBuffer.allocate(8).putLong(separator).array());
+                buffer.put((byte) '-');
+                value = -value;
+            }
+            int digits = 1;
+            for (int rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            int position = buffer.position();
+            for (int i = position + digits - 1; i >= position; i--) {
+                buffer.put(i, (byte) ('0' + value % 10));
+                value /= 10;
             }
+            buffer.position(position + digits);
+        }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+        // same encoding as encodeVByte
+        void writeVByte(int value) throws IOException {
+            if (buffer.remaining() < 5) {
+                flushBuffer();
+            }
+            while (value >= 128) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>= 7;
+            }
+            buffer.put((byte) (value & 0x7F));
+        }
+
+        void writeLong(long value) throws IOException {
+            if (buffer.remaining() < 8) {
+                flushBuffer();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flushBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBuffer();
+                if (force) {
+                    channel.force(true);
+                }
+            } finally {
+                channel.close();
+            }
         }
     }
 }
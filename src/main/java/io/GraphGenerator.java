@@ -0,0 +1,563 @@
+package io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic graphs as CSRRG text or as the vbyte binary format of
+ * {@link FileWriter#writeBinary}, including the line1/line2/line3 geometry used by
+ * the GUI. Vertices are generated in id order and every edge is listed once, in the
+ * row of the vertex that generates it (loadGraph symmetrises the adjacency). Each
+ * row starts with its own vertex id, like the rows written by FileWriter.
+ * Only a few rows are kept in memory at a time; the row pointer line goes to a
+ * temporary file and is appended at the end.
+ */
+public class GraphGenerator {
+    private static final double RGG_DENSITY = 0.5;
+    private static final double RMAT_A = 0.57;
+    private static final double RMAT_B = 0.19;
+    private static final double RMAT_C = 0.19;
+    public static final int DEFAULT_BLOCKS = 8;
+    public static final double DEFAULT_MIXING = 0.1;
+
+    public enum Type {
+        GRID("grid", 2),
+        RANDOM_GEOMETRIC("rgg", 4),
+        RMAT("rmat", 8),
+        PLANTED_PARTITION("planted", 5);
+
+        private final String optionName;
+        private final int defaultEdgesPerVertex;
+
+        Type(String optionName, int defaultEdgesPerVertex) {
+            this.optionName = optionName;
+            this.defaultEdgesPerVertex = defaultEdgesPerVertex;
+        }
+
+        public String getOptionName() {
+            return optionName;
+        }
+
+        // vertex count used when only an edge count is given
+        public int defaultVertices(long edges) {
+            return (int) Math.max(4, Math.min(Integer.MAX_VALUE / 2, edges / defaultEdgesPerVertex));
+        }
+
+        public static Type fromOptionName(String name) {
+            for (Type type : values()) {
+                if (type.optionName.equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown graph type: " + name);
+        }
+    }
+
+    public static final class Result {
+        private final int vertices;
+        private final long edges;
+
+        Result(int vertices, long edges) {
+            this.vertices = vertices;
+            this.edges = edges;
+        }
+
+        public int getVertices() {
+            return vertices;
+        }
+
+        public long getEdges() {
+            return edges;
+        }
+    }
+
+    public static Result generate(Type type, int vertices, long edges, long seed, boolean binary, String output)
+            throws IOException {
+        return generate(type, vertices, edges, DEFAULT_BLOCKS, DEFAULT_MIXING, seed, binary, output);
+    }
+
+    /**
+     * Generates a graph with about the given number of vertices and edges (grid and
+     * RMAT round the vertex count to a square and a power of two). blocks and mixing
+     * only apply to planted partitions: mixing is the expected fraction of a
+     * vertex's edges that leave its block.
+     */
+    public static Result generate(Type type, int vertices, long edges, int blocks, double mixing, long seed,
+            boolean binary, String output) throws IOException {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("At least two vertices are required: " + vertices);
+        }
+        if (edges < 0) {
+            throw new IllegalArgumentException("Edge count must not be negative: " + edges);
+        }
+        Path pointerFile = Files.createTempFile("generated_pointers_", binary ? ".bin" : ".csrrg");
+        try (Sink out = Sink.open(Paths.get(output), binary);
+                Sink pointers = Sink.open(pointerFile, binary)) {
+            Result result;
+            switch (type) {
+                case GRID:
+                    result = grid(vertices, out, pointers);
+                    break;
+                case RANDOM_GEOMETRIC:
+                    result = randomGeometric(vertices, edges, seed, out, pointers);
+                    break;
+                case RMAT:
+                    result = rmat(vertices, edges, seed, out, pointers);
+                    break;
+                default:
+                    result = plantedPartition(vertices, edges, blocks, mixing, seed, out, pointers);
+                    break;
+            }
+            out.endLine();
+            pointers.finish();
+            out.append(pointerFile);
+            return result;
+        } finally {
+            Files.deleteIfExists(pointerFile);
+        }
+    }
+
+    private static Result grid(int vertices, Sink out, Sink pointers) throws IOException {
+        int side = Math.max(2, (int) Math.round(Math.sqrt(vertices)));
+        writeSquareGeometry(out, side, side * side);
+        long edges = 0;
+        RowWriter rows = new RowWriter(out, pointers);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int vertex = row * side + col;
+                rows.startRow(vertex);
+                if (col + 1 < side) {
+                    rows.neighbour(vertex + 1);
+                    edges++;
+                }
+                if (row + 1 < side) {
+                    rows.neighbour(vertex + side);
+                    edges++;
+                }
+            }
+        }
+        rows.finish();
+        return new Result(side * side, edges);
+    }
+
+    /**
+     * Lattice points of a side x side matrix are kept with a fixed probability (at most
+     * RGG_DENSITY) and joined when closer than the radius that gives the requested
+     * average degree.
+     * Row occupancy is drawn from a per-row random so rows can be regenerated: one
+     * pass writes the geometry, a second pass the edges, with a window of radius+1 rows.
+     */
+    private static Result randomGeometric(int vertices, long edges, long seed, Sink out, Sink pointers)
+            throws IOException {
+        double averageDegree = 2.0 * edges / vertices;
+        long radiusSquared = radiusSquaredFor(averageDegree);
+        // the disc size grows in steps, so the density absorbs the rounding
+        double density = averageDegree > 0
+                ? Math.min(RGG_DENSITY, averageDegree / (latticePointsWithin(radiusSquared) - 1))
+                : RGG_DENSITY;
+        int side = Math.max(2, (int) Math.ceil(Math.sqrt(vertices / density)));
+        int reach = (int) Math.floor(Math.sqrt(radiusSquared));
+
+        out.value(side);
+        out.endLine();
+        int total = 0;
+        for (int row = 0; row < side; row++) {
+            for (int x : occupiedColumns(seed, row, side, density)) {
+                out.value(x);
+            }
+        }
+        out.endLine();
+        for (int row = 0; row < side; row++) {
+            out.value(total);
+            total += occupiedColumns(seed, row, side, density).length;
+        }
+        out.value(total);
+        out.endLine();
+
+        int[][] window = new int[reach + 1][];
+        int[] windowStart = new int[reach + 1];
+        int nextStart = 0;
+        for (int row = 0; row <= reach && row < side; row++) {
+            window[row] = occupiedColumns(seed, row, side, density);
+            windowStart[row] = nextStart;
+            nextStart += window[row].length;
+        }
+
+        long written = 0;
+        RowWriter rows = new RowWriter(out, pointers);
+        for (int row = 0; row < side; row++) {
+            int slot = row % (reach + 1);
+            int[] columns = window[slot];
+            for (int i = 0; i < columns.length; i++) {
+                int x = columns[i];
+                rows.startRow(windowStart[slot] + i);
+                for (int dy = 0; dy <= reach && row + dy < side; dy++) {
+                    int otherSlot = (row + dy) % (reach + 1);
+                    int[] other = window[otherSlot];
+                    int from = dy == 0 ? i + 1 : lowerBound(other, x - reach);
+                    for (int j = from; j < other.length && other[j] <= x + reach; j++) {
+                        long dx = other[j] - x;
+                        if (dx * dx + (long) dy * dy <= radiusSquared) {
+                            rows.neighbour(windowStart[otherSlot] + j);
+                            written++;
+                        }
+                    }
+                }
+            }
+            int next = row + reach + 1;
+            if (next < side) {
+                window[slot] = occupiedColumns(seed, next, side, density);
+                windowStart[slot] = nextStart;
+                nextStart += window[slot].length;
+            }
+        }
+        rows.finish();
+        return new Result(total, written);
+    }
+
+    // smallest squared radius whose lattice disc holds the average degree in kept points
+    private static long radiusSquaredFor(double averageDegree) {
+        long radiusSquared = 1;
+        while (RGG_DENSITY * (latticePointsWithin(radiusSquared) - 1) < averageDegree) {
+            radiusSquared++;
+        }
+        return radiusSquared;
+    }
+
+    private static long latticePointsWithin(long radiusSquared) {
+        int reach = (int) Math.floor(Math.sqrt(radiusSquared));
+        long count = 0;
+        for (long dx = -reach; dx <= reach; dx++) {
+            count += 2 * (long) Math.floor(Math.sqrt(radiusSquared - dx * dx)) + 1;
+        }
+        return count;
+    }
+
+    private static int[] occupiedColumns(long seed, int row, int side, double density) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + row);
+        int[] columns = new int[side];
+        int count = 0;
+        for (int x = 0; x < side; x++) {
+            if (random.nextDouble() < density) {
+                columns[count++] = x;
+            }
+        }
+        return Arrays.copyOf(columns, count);
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * R-MAT with the usual (0.57, 0.19, 0.19, 0.05) quadrants on 2^scale vertices. The
+     * recursive matrix is a Kronecker product, so the out-degree of every source and
+     * the bits of its targets can be drawn row by row instead of sampling edges globally.
+     * The quadrants are symmetric (b = c), so every row draws only targets above its own
+     * id, twice as often: each undirected edge is written once and the count is exact.
+     */
+    private static Result rmat(int vertices, long edges, long seed, Sink out, Sink pointers) throws IOException {
+        int scale = 32 - Integer.numberOfLeadingZeros(Math.max(1, vertices - 1));
+        int n = 1 << scale;
+        double top = RMAT_A + RMAT_B;
+        SplittableRandom random = new SplittableRandom(seed);
+        writeSquareGeometry(out, (int) Math.ceil(Math.sqrt(n)), n);
+
+        long written = 0;
+        int[] targets = new int[16];
+        // above[bit]: probability that bits bit..0 of a target of row u exceed those of u
+        double[] above = new double[scale];
+        RowWriter rows = new RowWriter(out, pointers);
+        for (int u = 0; u < n; u++) {
+            double probability = 1.0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                probability *= ((u >>> bit) & 1) == 0 ? top : 1.0 - top;
+            }
+            for (int bit = 0; bit < scale; bit++) {
+                double right = rightProbability(u, bit, top);
+                double below = bit == 0 ? 0.0 : above[bit - 1];
+                above[bit] = ((u >>> bit) & 1) == 0 ? right + (1.0 - right) * below : right * below;
+            }
+            int degree = scale == 0 ? 0 : poisson(random, 2.0 * edges * probability * above[scale - 1]);
+            if (degree > targets.length) {
+                targets = new int[Math.max(degree, targets.length * 2)];
+            }
+            for (int e = 0; e < degree; e++) {
+                int v = 0;
+                boolean greater = false;
+                for (int bit = scale - 1; bit >= 0; bit--) {
+                    double right = rightProbability(u, bit, top);
+                    if (greater) {
+                        if (random.nextDouble() < right) {
+                            v |= 1 << bit;
+                        }
+                    } else if (((u >>> bit) & 1) != 0) {
+                        // while v equals u so far, a 0 here would make it smaller
+                        v |= 1 << bit;
+                    } else if (random.nextDouble() * above[bit] < right) {
+                        v |= 1 << bit;
+                        greater = true;
+                    }
+                }
+                targets[e] = v;
+            }
+            Arrays.sort(targets, 0, degree);
+            rows.startRow(u);
+            for (int e = 0; e < degree; e++) {
+                if (e == 0 || targets[e] != targets[e - 1]) {
+                    rows.neighbour(targets[e]);
+                    written++;
+                }
+            }
+        }
+        rows.finish();
+        return new Result(n, written);
+    }
+
+    // chance that a target of row u has the bit set
+    private static double rightProbability(int u, int bit, double top) {
+        return ((u >>> bit) & 1) == 0 ? RMAT_B / top : (1.0 - top - RMAT_C) / (1.0 - top);
+    }
+
+    // Knuth's method for small means, a rounded normal approximation above that
+    private static int poisson(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > 30) {
+            double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                    * Math.cos(2 * Math.PI * random.nextDouble());
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * gaussian));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    /**
+     * blocks contiguous id ranges; pairs inside a block are joined with probability
+     * pIn, pairs across blocks with pOut. Candidates are visited with geometric skips
+     * (Batagelj-Brandes), so the cost is proportional to the edges written.
+     */
+    private static Result plantedPartition(int vertices, long edges, int blocks, double mixing, long seed,
+            Sink out, Sink pointers) throws IOException {
+        if (blocks < 1 || blocks > vertices) {
+            throw new IllegalArgumentException("Block count must be between 1 and " + vertices + ": " + blocks);
+        }
+        if (mixing < 0 || mixing > 1) {
+            throw new IllegalArgumentException("Mixing must be between 0 and 1: " + mixing);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        writeSquareGeometry(out, (int) Math.ceil(Math.sqrt(vertices)), vertices);
+        double averageDegree = 2.0 * edges / vertices;
+        int blockSize = (vertices + blocks - 1) / blocks;
+
+        long written = 0;
+        RowWriter rows = new RowWriter(out, pointers);
+        for (int u = 0; u < vertices; u++) {
+            int blockEnd = Math.min(vertices, (u / blockSize + 1) * blockSize);
+            int size = blockEnd - (u / blockSize) * blockSize;
+            double pIn = size > 1 ? Math.min(1.0, averageDegree * (1 - mixing) / (size - 1)) : 0;
+            double pOut = vertices > size ? Math.min(1.0, averageDegree * mixing / (vertices - size)) : 0;
+            rows.startRow(u);
+            written += sampleRange(random, u + 1, blockEnd, pIn, rows);
+            written += sampleRange(random, blockEnd, vertices, pOut, rows);
+        }
+        rows.finish();
+        return new Result(vertices, written);
+    }
+
+    private static long sampleRange(SplittableRandom random, int from, int to, double probability, RowWriter rows)
+            throws IOException {
+        if (probability <= 0 || from >= to) {
+            return 0;
+        }
+        long written = 0;
+        if (probability >= 1) {
+            for (int v = from; v < to; v++) {
+                rows.neighbour(v);
+                written++;
+            }
+            return written;
+        }
+        double logMiss = Math.log(1 - probability);
+        long v = from - 1;
+        while (true) {
+            v += 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / logMiss);
+            if (v >= to) {
+                return written;
+            }
+            rows.neighbour((int) v);
+            written++;
+        }
+    }
+
+    // vertex i sits in row i / side, column i % side
+    private static void writeSquareGeometry(Sink out, int side, int vertices) throws IOException {
+        out.value(side);
+        out.endLine();
+        for (int v = 0; v < vertices; v++) {
+            out.value(v % side);
+        }
+        out.endLine();
+        for (long start = 0; start < vertices; start += side) {
+            out.value((int) start);
+        }
+        out.value(vertices);
+        out.endLine();
+    }
+
+    // writes rows as "vertex;neighbours..." and the matching row pointers
+    private static final class RowWriter {
+        private final Sink out;
+        private final Sink pointers;
+        private long position;
+
+        RowWriter(Sink out, Sink pointers) throws IOException {
+            this.out = out;
+            this.pointers = pointers;
+            pointers.value(0);
+        }
+
+        void startRow(int vertex) throws IOException {
+            if (position > 0) {
+                pointers.value(checkedPosition());
+            }
+            out.value(vertex);
+            position++;
+        }
+
+        void neighbour(int vertex) throws IOException {
+            out.value(vertex);
+            position++;
+        }
+
+        private int checkedPosition() {
+            if (position > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Graph too large: more than " + Integer.MAX_VALUE
+                        + " adjacency entries");
+            }
+            return (int) position;
+        }
+
+        void finish() throws IOException {
+            pointers.value(checkedPosition());
+        }
+    }
+
+    /**
+     * Output in one of the two formats. Text separates values with ';' and lines
+     * with '\n'; binary writes vbytes and ends a line with the section separator.
+     */
+    private abstract static class Sink implements AutoCloseable {
+        protected final OutputStream stream;
+        protected boolean lineEmpty = true;
+
+        Sink(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        static Sink open(Path path, boolean binary) throws IOException {
+            OutputStream stream = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16);
+            return binary ? new BinarySink(stream) : new TextSink(stream);
+        }
+
+        abstract void value(int value) throws IOException;
+
+        abstract void endLine() throws IOException;
+
+        // closes the pointer line; the last line of a file has no separator
+        void finish() throws IOException {
+            stream.flush();
+        }
+
+        void append(Path path) throws IOException {
+            Files.copy(path, stream);
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    private static final class TextSink extends Sink {
+        private final byte[] digits = new byte[11];
+
+        TextSink(OutputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        void value(int value) throws IOException {
+            if (!lineEmpty) {
+                stream.write(';');
+            }
+            lineEmpty = false;
+            if (value < 0) {
+                stream.write('-');
+                value = -value;
+            }
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (length > 0) {
+                stream.write(digits[--length]);
+            }
+        }
+
+        @Override
+        void endLine() throws IOException {
+            stream.write('\n');
+            lineEmpty = true;
+        }
+
+        @Override
+        void finish() throws IOException {
+            endLine();
+            super.finish();
+        }
+    }
+
+    private static final class BinarySink extends Sink {
+        private static final byte[] SEPARATOR = ByteBuffer.allocate(8).putLong(VByteDecoder.SEPARATOR).array();
+
+        BinarySink(OutputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        void value(int value) throws IOException {
+            FileWriter.encodeVByte(stream, value);
+        }
+
+        @Override
+        void endLine() throws IOException {
+            stream.write(SEPARATOR);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming decoder for the semicolon separated text format. The file is mapped
+ * window by window and every line is decoded byte by byte straight into an int
+ * array, so no line strings or boxed integers are created.
+ */
+final class TextLineDecoder {
+    private static final long MAP_WINDOW = 1L << 28;
+    private static final long MAX_MAGNITUDE = 1L << 31;
+
+    private final List<int[]> lines = new ArrayList<>();
+    private int[] values = new int[1024];
+    private int count;
+    private int lineErrors;
+    private int firstLineErrors;
+
+    // state of the token being decoded, kept across mapped windows
+    private long magnitude;
+    private boolean negative;
+    private boolean digits;
+    private boolean tokenEnded;
+    private boolean invalid;
+    private boolean lineHasBytes;
+    private boolean afterCarriageReturn;
+
+    private TextLineDecoder() {
+    }
+
+    static TextLineDecoder decode(String filePath) throws IOException {
+        TextLineDecoder decoder = new TextLineDecoder();
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW, size - position));
+                decoder.consume(buffer);
+            }
+        }
+        if (decoder.lineHasBytes) {
+            decoder.endLine();
+        }
+        return decoder;
+    }
+
+    List<int[]> getLines() {
+        return lines;
+    }
+
+    // number of tokens on the first line that were not integers
+    int getFirstLineErrors() {
+        return firstLineErrors;
+    }
+
+    private void consume(MappedByteBuffer buffer) {
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (afterCarriageReturn) {
+                afterCarriageReturn = false;
+                if (b == '\n') {
+                    continue;
+                }
+            }
+            if (b >= '0' && b <= '9') {
+                lineHasBytes = true;
+                if (tokenEnded) {
+                    invalid = true;
+                } else if (!invalid) {
+                    magnitude = magnitude * 10 + (b - '0');
+                    digits = true;
+                    if (magnitude > MAX_MAGNITUDE) {
+                        invalid = true;
+                    }
+                }
+                continue;
+            }
+            switch (b) {
+                case ';':
+                    lineHasBytes = true;
+                    endToken();
+                    break;
+                case '\n':
+                    endLine();
+                    break;
+                case '\r':
+                    endLine();
+                    afterCarriageReturn = true;
+                    break;
+                case ' ':
+                case '\t':
+                    lineHasBytes = true;
+                    if (digits || negative) {
+                        tokenEnded = true;
+                    }
+                    break;
+                case '-':
+                    lineHasBytes = true;
+                    if (digits || negative || tokenEnded) {
+                        invalid = true;
+                    }
+                    negative = true;
+                    break;
+                default:
+                    lineHasBytes = true;
+                    invalid = true;
+                    break;
+            }
+        }
+    }
+
+    private void endToken() {
+        if (digits && !invalid && (negative || magnitude < MAX_MAGNITUDE)) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = (int) (negative ? -magnitude : magnitude);
+        } else if (digits || negative || invalid) {
+            lineErrors++;
+            System.err.println("Błąd parsowania liczby w linii " + (lines.size() + 1));
+        }
+        magnitude = 0;
+        negative = false;
+        digits = false;
+        tokenEnded = false;
+        invalid = false;
+    }
+
+    private void endLine() {
+        endToken();
+        if (lines.isEmpty()) {
+            firstLineErrors = lineErrors;
+        }
+        lines.add(Arrays.copyOf(values, count));
+        count = 0;
+        lineErrors = 0;
+        lineHasBytes = false;
+    }
+}
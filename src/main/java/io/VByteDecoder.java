@@ -0,0 +1,115 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoder for the vbyte format written by {@link FileWriter#writeBinary}: sections
+ * of vbyte encoded values separated by the 8 byte marker 0xDEADBEEFCAFEBABE. The
+ * marker is accepted in both byte orders. All its bytes have the continuation bit
+ * set and a vbyte int never spans more than five bytes, so a marker can not be
+ * mistaken for a value.
+ */
+final class VByteDecoder {
+    static final long SEPARATOR = 0xDEADBEEFCAFEBABEL;
+    private static final long SWAPPED_SEPARATOR = Long.reverseBytes(SEPARATOR);
+    private static final int MAX_VBYTE_LENGTH = 5;
+
+    private VByteDecoder() {
+    }
+
+    static List<int[]> decode(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary file too large to map: " + filePath + " (" + size + " bytes)");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return decode(buffer);
+        }
+    }
+
+    /**
+     * True when the file opens with one vbyte value followed by a separator, which
+     * is how every writeBinary file starts (the vertex count, then the marker).
+     */
+    static boolean startsWithSeparatedValue(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAX_VBYTE_LENGTH + 8);
+            int read;
+            do {
+                read = channel.read(head);
+            } while (read > 0 && head.hasRemaining());
+            head.flip();
+            int pos = 0;
+            while (pos < head.limit() && pos < MAX_VBYTE_LENGTH && (head.get(pos) & 0x80) != 0) {
+                pos++;
+            }
+            pos++;
+            if (head.limit() - pos < 8) {
+                return false;
+            }
+            long word = head.getLong(pos);
+            return word == SEPARATOR || word == SWAPPED_SEPARATOR;
+        }
+    }
+
+    static List<int[]> decode(ByteBuffer source) throws IOException {
+        ByteBuffer buffer = source.duplicate().order(ByteOrder.BIG_ENDIAN);
+        List<int[]> sections = new ArrayList<>();
+        int[] values = new int[1024];
+        int count = 0;
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        if (pos == limit) {
+            return sections;
+        }
+
+        while (pos < limit) {
+            byte first = buffer.get(pos);
+            if ((first == (byte) 0xDE || first == (byte) 0xBE) && limit - pos >= 8) {
+                long word = buffer.getLong(pos);
+                if (word == SEPARATOR || word == SWAPPED_SEPARATOR) {
+                    sections.add(Arrays.copyOf(values, count));
+                    count = 0;
+                    pos += 8;
+                    continue;
+                }
+            }
+
+            int value = 0;
+            int shift = 0;
+            int start = pos;
+            byte b;
+            do {
+                if (pos == limit) {
+                    throw new IOException("Truncated vbyte value at offset " + start);
+                }
+                if (pos - start == MAX_VBYTE_LENGTH) {
+                    throw new IOException("Vbyte value longer than " + MAX_VBYTE_LENGTH + " bytes at offset " + start);
+                }
+                b = buffer.get(pos++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = value;
+        }
+        // writeBinary does not terminate the last section with a separator
+        if (count > 0) {
+            sections.add(Arrays.copyOf(values, count));
+        }
+        return sections;
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+/**
+ * Immutable compressed-sparse-row adjacency. Neighbours of vertex v are
+ * targets[offsets[v]] .. targets[offsets[v + 1] - 1], sorted ascending and
+ * stored in both directions for every undirected edge.
+ */
+public final class CsrGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int edges;
+
+    public CsrGraph(int[] offsets, int[] targets) {
+        if (offsets == null || offsets.length == 0 || targets == null) {
+            throw new IllegalArgumentException("Offsets must contain at least one entry and targets cannot be null");
+        }
+        if (offsets[0] != 0 || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("Offsets must start at 0 and end at targets.length");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+
+        int selfLoops = 0;
+        for (int v = 0; v < offsets.length - 1; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (targets[i] == v) {
+                    selfLoops++;
+                }
+            }
+        }
+        this.edges = selfLoops + (targets.length - selfLoops) / 2;
+    }
+
+    public static CsrGraph empty(int vertices) {
+        return new CsrGraph(new int[vertices + 1], new int[0]);
+    }
+
+    public int getVertices() {
+        return offsets.length - 1;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    public int getDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    // the returned arrays are shared with the graph and must not be modified
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class Graph {
     private int vertices;
@@ -8,8 +9,13 @@ public class Graph {
     private int partitions;
     private int minCount;
     private int maxCount;
+    // per-vertex nodes of graphs built node by node; for CSR graphs views created on request
     private ArrayList<Node> nodes;
+    private Node[] nodeViews;
     private int[] rowIndices;
+    private int[] partIds;
+    private CsrGraph csr;
+    private boolean compact;
 
     public Graph(int vertices) {
         this.vertices = vertices;
@@ -17,13 +23,96 @@ public class Graph {
         this.partitions = 0;
         this.minCount = 0;
         this.maxCount = 0;
+        this.partIds = new int[vertices];
+        Arrays.fill(this.partIds, -1);
+        this.csr = null;
+        this.compact = false;
         this.nodes = new ArrayList<>(vertices);
         for (int i = 0; i < vertices; i++) {
-            this.nodes.add(new Node(i));
+            Node node = new Node(i);
+            node.attach(this);
+            this.nodes.add(node);
         }
     }
 
+    /**
+     * Creates a graph whose adjacency is the given immutable CSR structure.
+     * Nodes returned by {@link #getNode(int)} are thin views over the CSR rows
+     * and the partition array, created the first time they are asked for.
+     */
+    public Graph(CsrGraph csr) {
+        this.vertices = csr.getVertices();
+        this.partIds = new int[vertices];
+        Arrays.fill(this.partIds, -1);
+        this.csr = csr;
+        this.compact = true;
+        this.edges = csr.getEdges();
+    }
+
+    /**
+     * Returns the CSR adjacency of this graph. For graphs assembled node by node
+     * the CSR is built on first use and rebuilt after the adjacency changes. The
+     * CSR is always undirected: a neighbour listed on one side only appears in both
+     * rows, while {@link Node#getNeighbours()} keeps the lists as they were built.
+     * Partitioning and cut evaluation work on the CSR.
+     */
+    public CsrGraph getCsr() {
+        if (csr == null) {
+            GraphBuilder builder = new GraphBuilder(vertices);
+            for (Node node : nodes) {
+                for (Node neighbour : node.getNeighbours()) {
+                    if (neighbour.getId() >= 0 && neighbour.getId() < vertices) {
+                        builder.addEdge(node.getId(), neighbour.getId());
+                    }
+                }
+            }
+            csr = builder.build();
+        }
+        return csr;
+    }
+
+    /**
+     * Returns a graph over the same CSR with the same partition count and size limits
+     * but no vertex assigned, so independent partitioning attempts can run side by side.
+     */
+    public Graph copyUnassigned() {
+        Graph copy = new Graph(getCsr());
+        copy.partitions = partitions;
+        copy.minCount = minCount;
+        copy.maxCount = maxCount;
+        copy.rowIndices = rowIndices;
+        copy.parsedData = parsedData;
+        return copy;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    void invalidateCsr() {
+        if (!compact) {
+            csr = null;
+        }
+    }
+
+    // live vertex -> partition array, shared by every node view of this graph
+    public int[] getPartIds() {
+        return partIds;
+    }
+
+    public int getPartId(int vertex) {
+        return partIds[vertex];
+    }
+
+    public void setPartId(int vertex, int partId) {
+        partIds[vertex] = partId;
+    }
+
     public void setEdges() {
+        if (compact) {
+            this.edges = csr.getEdges();
+            return;
+        }
         int edges = 0;
         for (int i = 0; i < vertices; i++) {
             edges += nodes.get(i).getNeighbours().size();
@@ -99,7 +188,15 @@ public class Graph {
         return maxCount;
     }
 
+    // for CSR graphs this creates every node view; hot paths use getCsr and getPartIds instead
     public ArrayList<Node> getNodes() {
+        if (nodes == null) {
+            ArrayList<Node> views = new ArrayList<>(vertices);
+            for (int i = 0; i < vertices; i++) {
+                views.add(getNode(i));
+            }
+            nodes = views;
+        }
         return nodes;
     }
 
@@ -112,7 +209,7 @@ public class Graph {
     }
 
     public void printPartitionNeighbours() {
-        for (Node node : nodes) {
+        for (Node node : getNodes()) {
             System.out.print("Node " + node.getId() + " neighbours: ");
             for (Node neighbour : node.getNeighbours()) {
                 System.out.print(neighbour.getId() + " ");
@@ -125,7 +222,19 @@ public class Graph {
         if (id < 0 || id >= vertices) {
             throw new IllegalArgumentException("Node ID out of bounds: " + id);
         }
-        return nodes.get(id);
+        if (!compact) {
+            return nodes.get(id);
+        }
+        if (nodeViews == null) {
+            nodeViews = new Node[vertices];
+        }
+        Node view = nodeViews[id];
+        if (view == null) {
+            view = new Node(id);
+            view.attach(this);
+            nodeViews[id] = view;
+        }
+        return view;
     }
 
     public void addNode(Node node) {
@@ -135,7 +244,14 @@ public class Graph {
         if (node.getId() < 0 || node.getId() >= vertices) {
             throw new IllegalArgumentException("Node ID out of bounds: " + node.getId());
         }
+        if (compact) {
+            throw new UnsupportedOperationException("Cannot replace nodes of an immutable CSR graph");
+        }
+        int partId = node.getPartId();
+        node.attach(this);
+        partIds[node.getId()] = partId;
         nodes.set(node.getId(), node);
+        invalidateCsr();
         for (Node neighbour : node.getNeighbours()) {
             if (neighbour.getId() >= 0 && neighbour.getId() < vertices) {
                 nodes.get(neighbour.getId()).addNeighbour(node.getId());
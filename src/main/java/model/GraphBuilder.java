@@ -0,0 +1,102 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Collects undirected edges into flat int arrays and compacts them into a
+ * {@link CsrGraph}. Duplicate edges are dropped when the graph is built by
+ * sorting each row and compacting it, so building costs O(E log deg) instead
+ * of the O(deg^2) per vertex of repeated {@code List.contains} checks.
+ */
+public class GraphBuilder {
+    private final int vertices;
+    private int[] sources;
+    private int[] destinations;
+    private int size;
+
+    public GraphBuilder(int vertices) {
+        this(vertices, 16);
+    }
+
+    public GraphBuilder(int vertices, int expectedEdges) {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("Number of vertices cannot be negative: " + vertices);
+        }
+        this.vertices = vertices;
+        this.sources = new int[Math.max(16, expectedEdges)];
+        this.destinations = new int[Math.max(16, expectedEdges)];
+        this.size = 0;
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public void addEdge(int u, int v) {
+        if (u < 0 || u >= vertices || v < 0 || v >= vertices) {
+            throw new IllegalArgumentException("Edge (" + u + ", " + v + ") out of bounds for " + vertices + " vertices");
+        }
+        if (size == sources.length) {
+            int newCapacity = sources.length * 2;
+            sources = Arrays.copyOf(sources, newCapacity);
+            destinations = Arrays.copyOf(destinations, newCapacity);
+        }
+        sources[size] = u;
+        destinations[size] = v;
+        size++;
+    }
+
+    public CsrGraph build() {
+        int[] offsets = new int[vertices + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[sources[i] + 1]++;
+            if (sources[i] != destinations[i]) {
+                offsets[destinations[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] targets = new int[offsets[vertices]];
+        int[] fill = Arrays.copyOf(offsets, vertices);
+        for (int i = 0; i < size; i++) {
+            int u = sources[i];
+            int v = destinations[i];
+            targets[fill[u]++] = v;
+            if (u != v) {
+                targets[fill[v]++] = u;
+            }
+        }
+
+        // sort every row and drop duplicate neighbours in place
+        int write = 0;
+        int rowStart = 0;
+        for (int v = 0; v < vertices; v++) {
+            int rowEnd = offsets[v + 1];
+            if (!isSorted(targets, rowStart, rowEnd)) {
+                Arrays.sort(targets, rowStart, rowEnd);
+            }
+            offsets[v] = write;
+            for (int i = rowStart; i < rowEnd; i++) {
+                if (i == rowStart || targets[i] != targets[i - 1]) {
+                    targets[write++] = targets[i];
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[vertices] = write;
+
+        return new CsrGraph(offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+    }
+
+    // rows of CSR input files are usually already ordered, so the sort can be skipped
+    private static boolean isSorted(int[] values, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,12 +1,20 @@
 package model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class Node {
+    private static final int HASH_INDEX_THRESHOLD = 16;
+
     private int id;
     private List<Node> neighbours;
+    private Set<Integer> neighbourIds;
+    private List<Node> csrNeighbours;
     private int partId;
+    private Graph graph;
 
     public Node(int id) {
         this.id = id;
@@ -14,13 +22,42 @@ public class Node {
         this.partId = -1;
     }
 
-    public boolean addNeighbour(int neighbourId) {
-        Node tempNode = new Node(neighbourId);
+    // once attached, partId (and for CSR graphs the neighbours) live in the graph arrays
+    void attach(Graph graph) {
+        this.graph = graph;
+    }
 
-        if (this.neighbours.contains(tempNode)) {
-            return false;
+    public boolean addNeighbour(int neighbourId) {
+        if (graph != null && graph.isCompact()) {
+            throw new UnsupportedOperationException("Cannot add neighbours to a node of an immutable CSR graph");
+        }
+        if (this.neighbourIds != null) {
+            if (!this.neighbourIds.add(neighbourId)) {
+                return false;
+            }
+        } else {
+            for (int i = 0; i < this.neighbours.size(); i++) {
+                if (this.neighbours.get(i).getId() == neighbourId) {
+                    return false;
+                }
+            }
+            // hub vertices switch to a hash index so the check stays O(1)
+            if (this.neighbours.size() >= HASH_INDEX_THRESHOLD) {
+                this.neighbourIds = new HashSet<>();
+                for (Node neighbour : this.neighbours) {
+                    this.neighbourIds.add(neighbour.getId());
+                }
+                this.neighbourIds.add(neighbourId);
+            }
+        }
+        if (graph != null && neighbourId >= 0 && neighbourId < graph.getVertices()) {
+            this.neighbours.add(graph.getNode(neighbourId));
+        } else {
+            this.neighbours.add(new Node(neighbourId));
+        }
+        if (graph != null) {
+            graph.invalidateCsr();
         }
-        this.neighbours.add(tempNode);
         return true;
     }
 
@@ -29,15 +66,28 @@ public class Node {
     }
 
     public List<Node> getNeighbours() {
+        if (graph != null && graph.isCompact()) {
+            if (csrNeighbours == null) {
+                csrNeighbours = new CsrNeighbourList(graph, id);
+            }
+            return csrNeighbours;
+        }
         return neighbours;
     }
 
     public int getPartId() {
+        if (graph != null) {
+            return graph.getPartId(id);
+        }
         return partId;
     }
 
     public void setPartId(int partId) {
-        this.partId = partId;
+        if (graph != null) {
+            graph.setPartId(id, partId);
+        } else {
+            this.partId = partId;
+        }
     }
 
     @Override
@@ -63,7 +113,40 @@ public class Node {
     }
 
     public int getNeighbourCount() {
+        if (graph != null && graph.isCompact()) {
+            return graph.getCsr().getDegree(id);
+        }
         return this.neighbours.size();
     }
 
+    /**
+     * Read-only view of one CSR row that resolves neighbour ids to the graph's own nodes.
+     */
+    private static final class CsrNeighbourList extends AbstractList<Node> {
+        private final Graph graph;
+        private final int[] targets;
+        private final int start;
+        private final int size;
+
+        CsrNeighbourList(Graph graph, int vertex) {
+            CsrGraph csr = graph.getCsr();
+            this.graph = graph;
+            this.targets = csr.getTargets();
+            this.start = csr.getOffsets()[vertex];
+            this.size = csr.getDegree(vertex);
+        }
+
+        @Override
+        public Node get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return graph.getNode(targets[start + index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
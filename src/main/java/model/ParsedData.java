@@ -1,18 +1,23 @@
 package model;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ParsedData {
     private int line1;
-    private List<Integer> line2;
-    private List<Integer> line3;
-    private List<Integer> edges;
-    private List<Integer> rowPointers;
+    private int[] line2;
+    private int[] line3;
+    private int[] edges;
+    private int[] rowPointers;
     private int line2Count;
     private int line3Count;
     private int edgeCount;
     private int rowCount;
+    private int[] partitionPairs;
     private String rawPartitionDataLine;
+    private int[][] offsetLines;
     private List<String> rawOffsetLines;
     private int numberOfPartitions;
 
@@ -26,7 +31,9 @@ public class ParsedData {
         this.edgeCount = 0;
         this.rowPointers = null;
         this.rowCount = 0;
+        this.partitionPairs = null;
         this.rawPartitionDataLine = null;
+        this.offsetLines = null;
         this.rawOffsetLines = null;
         this.numberOfPartitions = 0;
     }
@@ -44,55 +51,137 @@ public class ParsedData {
     }
 
     public List<Integer> getLine2() {
+        return asList(line2);
+    }
+
+    public int[] getLine2Array() {
         return line2;
     }
 
     public void setLine2(List<Integer> line2) {
+        setLine2(toArray(line2));
+    }
+
+    public void setLine2(int[] line2) {
         this.line2 = line2;
-        this.line2Count = line2.size();
+        this.line2Count = line2.length;
     }
 
     public List<Integer> getLine3() {
+        return asList(line3);
+    }
+
+    public int[] getLine3Array() {
         return line3;
     }
 
     public void setLine3(List<Integer> line3) {
+        setLine3(toArray(line3));
+    }
+
+    public void setLine3(int[] line3) {
         this.line3 = line3;
-        this.line3Count = line3.size();
+        this.line3Count = line3.length;
     }
 
     public List<Integer> getEdges() {
+        return asList(edges);
+    }
+
+    public int[] getEdgesArray() {
         return edges;
     }
 
     public void setEdges(List<Integer> edges) {
+        setEdges(toArray(edges));
+    }
+
+    public void setEdges(int[] edges) {
         this.edges = edges;
-        this.edgeCount = edges.size();
+        this.edgeCount = edges.length;
     }
 
     public List<Integer> getRowPointers() {
+        return asList(rowPointers);
+    }
+
+    public int[] getRowPointersArray() {
         return rowPointers;
     }
 
     public void setRowPointers(List<Integer> rowPointers) {
+        setRowPointers(toArray(rowPointers));
+    }
+
+    public void setRowPointers(int[] rowPointers) {
         this.rowPointers = rowPointers;
-        this.rowCount = rowPointers.size();
+        this.rowCount = rowPointers.length;
     }
 
     public String getRawPartitionDataLine() {
+        if (rawPartitionDataLine == null && partitionPairs != null) {
+            rawPartitionDataLine = join(partitionPairs);
+        }
         return rawPartitionDataLine;
     }
 
     public void setRawPartitionDataLine(String rawPartitionDataLine) {
         this.rawPartitionDataLine = rawPartitionDataLine;
+        this.partitionPairs = null;
+    }
+
+    /**
+     * Values of the partitioned adjacency line. Parsed lazily when the data was
+     * given as a raw string; throws NumberFormatException for malformed tokens.
+     */
+    public int[] getPartitionPairs() {
+        if (partitionPairs == null && rawPartitionDataLine != null) {
+            String line = rawPartitionDataLine.trim();
+            partitionPairs = line.isEmpty() ? new int[0]
+                    : Arrays.stream(line.split(";")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        }
+        return partitionPairs;
+    }
+
+    public void setPartitionPairs(int[] partitionPairs) {
+        this.partitionPairs = partitionPairs;
+        this.rawPartitionDataLine = null;
     }
 
     public List<String> getRawOffsetLines() {
+        if (rawOffsetLines == null && offsetLines != null) {
+            List<String> lines = new ArrayList<>(offsetLines.length);
+            for (int[] line : offsetLines) {
+                lines.add(join(line));
+            }
+            rawOffsetLines = lines;
+        }
         return rawOffsetLines;
     }
 
     public void setRawOffsetLines(List<String> rawOffsetLines) {
         this.rawOffsetLines = rawOffsetLines;
+        this.offsetLines = null;
+    }
+
+    /**
+     * Offset lines of a partitioned file, one int array per partition. Tokens that
+     * are not integers are skipped, as when reading a raw line.
+     */
+    public int[][] getOffsetLines() {
+        if (offsetLines == null && rawOffsetLines != null) {
+            int[][] lines = new int[rawOffsetLines.size()][];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = parseLenient(rawOffsetLines.get(i));
+            }
+            offsetLines = lines;
+        }
+        return offsetLines;
+    }
+
+    public void setOffsetLines(int[][] offsetLines) {
+        this.offsetLines = offsetLines;
+        this.rawOffsetLines = null;
     }
 
     public int getNumberOfPartitions() {
@@ -102,4 +191,59 @@ public class ParsedData {
     public void setNumberOfPartitions(int numberOfPartitions) {
         this.numberOfPartitions = numberOfPartitions;
     }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    // read-only boxed view kept for callers of the List based getters
+    private static List<Integer> asList(int[] values) {
+        if (values == null) {
+            return null;
+        }
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return values[index];
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    private static String join(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(';');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    private static int[] parseLenient(String line) {
+        if (line == null || line.trim().isEmpty()) {
+            return new int[0];
+        }
+        String[] tokens = line.trim().split(";");
+        int[] values = new int[tokens.length];
+        int count = 0;
+        for (String token : tokens) {
+            try {
+                values[count++] = Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                count--;
+                System.err.println("Błąd parsowania liczby: " + token);
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
 }
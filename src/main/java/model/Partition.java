@@ -1,25 +1,89 @@
 package model;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Members of one partition as a primitive index set. A partition stored in a
+ * {@link PartitionData} looks membership up in its vertex -> part array and leaves
+ * every change to it, so add, remove and contains are O(1) and a vertex added here
+ * is taken out of its old partition. A partition that is not stored falls back to
+ * linear scans.
+ */
 public class Partition {
     private int id;
     private int partitionVertexCount;
-    private List<Integer> partitionNodes;
+    private int[] members;
+    private int size;
+    private PartitionData owner;
+    private int slot = -1;
+    private final List<Integer> nodesView = new AbstractList<Integer>() {
+        @Override
+        public Integer get(int index) {
+            return getNode(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
 
     public Partition(int id, int partitionVertexCount, List<Integer> partitionNodes) {
         this.id = id;
         this.partitionVertexCount = partitionVertexCount;
-        this.partitionNodes = partitionNodes;
+        this.members = new int[Math.max(4, partitionNodes.size())];
+        for (int node : partitionNodes) {
+            members[size++] = node;
+        }
     }
 
     public void addNode(int nodeId) {
-        if (!partitionNodes.contains(nodeId)) {
-            partitionNodes.add(nodeId);
-            partitionVertexCount++;
+        if (owner != null) {
+            owner.moveVertex(nodeId, slot);
+        } else if (!contains(nodeId)) {
+            append(nodeId);
         }
     }
 
+    public void removeNode(int nodeId) {
+        if (owner != null) {
+            if (contains(nodeId)) {
+                owner.moveVertex(nodeId, -1);
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (members[i] == nodeId) {
+                removeAt(i);
+                return;
+            }
+        }
+    }
+
+    public boolean contains(int nodeId) {
+        if (owner != null) {
+            return owner.getPartOf(nodeId) == slot;
+        }
+        for (int i = 0; i < size; i++) {
+            if (members[i] == nodeId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        if (owner != null) {
+            while (size > 0) {
+                owner.moveVertex(members[size - 1], -1);
+            }
+        }
+        size = 0;
+        partitionVertexCount = 0;
+    }
+
     public int getId() {
         return id;
     }
@@ -28,16 +92,75 @@ public class Partition {
         return partitionVertexCount;
     }
 
+    public int size() {
+        return size;
+    }
+
+    public int getNode(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return members[index];
+    }
+
+    // read-only view in set order, which changes as vertices are removed
     public List<Integer> getPartitionNodes() {
-        return partitionNodes;
+        return nodesView;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(members, size);
     }
 
     public void setPartitionVertexCount(int partitionVertexCount) {
         this.partitionVertexCount = partitionVertexCount;
     }
 
+    // replaces the members and keeps the count as it was set
     public void setPartitionNodes(List<Integer> partitionNodes) {
-        this.partitionNodes = partitionNodes;
+        int count = partitionVertexCount;
+        clear();
+        for (int node : partitionNodes) {
+            addNode(node);
+        }
+        partitionVertexCount = count;
+    }
+
+    boolean isOwned() {
+        return owner != null;
     }
 
+    // PartitionData moves the members back in one by one after attaching
+    void attach(PartitionData owner, int slot) {
+        this.owner = owner;
+        this.slot = slot;
+        size = 0;
+        partitionVertexCount = 0;
+    }
+
+    void detach() {
+        owner = null;
+        slot = -1;
+    }
+
+    // appends and returns the position of the new member
+    int append(int nodeId) {
+        if (size == members.length) {
+            members = Arrays.copyOf(members, members.length * 2);
+        }
+        members[size] = nodeId;
+        partitionVertexCount++;
+        return size++;
+    }
+
+    // swap-removes the member at position and returns the vertex moved into it, or -1
+    int removeAt(int position) {
+        partitionVertexCount--;
+        int last = members[--size];
+        if (position == size) {
+            return -1;
+        }
+        members[position] = last;
+        return last;
+    }
 }
@@ -1,18 +1,26 @@
 package model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Partitions backed by a vertex -> part array and a vertex -> position array into
+ * the member set of that part. Adding, moving and looking up a vertex is O(1).
+ * Every move goes through {@link #moveVertex}, which updates both partitions.
+ * The partition list has a fixed size; a partition stored with set takes its
+ * vertices over from the partitions they were in.
+ */
 public class PartitionData {
     private int partsCount;
-    private List<Partition> partitions;
+    private final List<Partition> slots = new ArrayList<>();
+    private final List<Partition> partitions = new PartitionList();
+    private int[] vertexParts = new int[0];
+    private int[] positions = new int[0];
 
     public PartitionData(int partsCount) {
-        this.partsCount = partsCount;
-        this.partitions = new ArrayList<>(partsCount);
-        for (int i = 0; i < partsCount; i++) {
-            partitions.add(new Partition(i, 0, new ArrayList<>()));
-        }
+        reset(partsCount);
     }
 
     public int getPartsCount() {
@@ -28,7 +36,22 @@ public class PartitionData {
     }
 
     public void setPartitions(List<Partition> partitions) {
-        this.partitions = partitions;
+        List<Partition> copy = new ArrayList<>(partitions);
+        release();
+        for (Partition partition : copy) {
+            slots.add(null);
+            adopt(slots.size() - 1, partition);
+        }
+    }
+
+    // replaces the partitions with partsCount empty ones
+    public void reset(int partsCount) {
+        this.partsCount = partsCount;
+        release();
+        for (int i = 0; i < partsCount; i++) {
+            slots.add(null);
+            adopt(i, new Partition(i, 0, new ArrayList<>()));
+        }
     }
 
     public void addVertexToPartition(int partitionId, int vertexId) {
@@ -38,4 +61,103 @@ public class PartitionData {
         Partition partition = partitions.get(partitionId);
         partition.addNode(vertexId);
     }
+
+    // partition index of the vertex, or -1 when it is in none
+    public int getPartOf(int vertex) {
+        return vertex >= 0 && vertex < vertexParts.length ? vertexParts[vertex] : -1;
+    }
+
+    /**
+     * Brings the partitions in line with a vertex -> partition array. Only vertices
+     * whose partition differs are moved, so after an FM pass the cost is one
+     * comparison per vertex plus O(1) per moved vertex.
+     */
+    public void assignFromPartIds(int[] partIds) {
+        for (int vertex = 0; vertex < partIds.length; vertex++) {
+            int partitionId = partIds[vertex];
+            int target = partitionId >= 0 && partitionId < partsCount && partitionId < slots.size() ? partitionId : -1;
+            if (getPartOf(vertex) != target) {
+                moveVertex(vertex, target);
+            }
+        }
+    }
+
+    // moves the vertex into the partition at slot (-1 removes it) and updates both counts
+    void moveVertex(int vertex, int slot) {
+        int current = getPartOf(vertex);
+        if (current == slot) {
+            return;
+        }
+        if (current >= 0) {
+            Partition from = slots.get(current);
+            int moved = from.removeAt(positions[vertex]);
+            if (moved >= 0) {
+                positions[moved] = positions[vertex];
+            }
+            vertexParts[vertex] = -1;
+        }
+        if (slot >= 0) {
+            ensureCapacity(vertex + 1);
+            positions[vertex] = slots.get(slot).append(vertex);
+            vertexParts[vertex] = slot;
+        }
+    }
+
+    // stores the partition at slot; its vertices leave the partitions they were in
+    private void adopt(int slot, Partition partition) {
+        if (partition.isOwned()) {
+            throw new IllegalArgumentException("Partition " + partition.getId() + " is already stored");
+        }
+        int[] vertices = partition.toArray();
+        partition.attach(this, slot);
+        slots.set(slot, partition);
+        for (int vertex : vertices) {
+            moveVertex(vertex, slot);
+        }
+    }
+
+    // empties the index; released partitions keep their members as plain lists
+    private void release() {
+        for (Partition partition : slots) {
+            partition.detach();
+        }
+        slots.clear();
+        Arrays.fill(vertexParts, -1);
+    }
+
+    private void ensureCapacity(int vertices) {
+        if (vertices > vertexParts.length) {
+            int capacity = Math.max(vertices, vertexParts.length * 2);
+            int oldLength = vertexParts.length;
+            vertexParts = Arrays.copyOf(vertexParts, capacity);
+            Arrays.fill(vertexParts, oldLength, capacity, -1);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+    }
+
+    private final class PartitionList extends AbstractList<Partition> {
+        @Override
+        public Partition get(int index) {
+            return slots.get(index);
+        }
+
+        @Override
+        public int size() {
+            return slots.size();
+        }
+
+        @Override
+        public Partition set(int index, Partition partition) {
+            Partition old = slots.get(index);
+            if (old == partition) {
+                return old;
+            }
+            for (int i = 0; i < old.size(); i++) {
+                vertexParts[old.getNode(i)] = -1;
+            }
+            old.detach();
+            adopt(index, partition);
+            return old;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package utils;
+
+import model.CsrGraph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Edge cut and communication volume over a CSR adjacency and a vertex -> part
+ * array. Every undirected edge is stored in both rows and counted only from its
+ * lower id end, so no edge set is needed. The parallel variants split the
+ * vertices into fixed ranges and sum the per-range results on the common pool;
+ * they return the same values as the sequential ones.
+ */
+public final class CutEvaluator {
+    private static final int RANGE_SIZE = 1 << 14;
+    // below this many adjacency entries the fork/join overhead outweighs the scan
+    private static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    private CutEvaluator() {
+    }
+
+    public static int countCutEdges(CsrGraph csr, int[] partIds) {
+        return cutWeight(csr, null, partIds, false);
+    }
+
+    public static int countCutEdges(CsrGraph csr, int[] partIds, boolean parallel) {
+        return cutWeight(csr, null, partIds, parallel);
+    }
+
+    /**
+     * Sums the weights of the edges whose ends lie in different parts. Edge weights
+     * are aligned with the CSR targets; null means unit weights. Unassigned
+     * vertices (-1) count as a part of their own, as in FM.
+     */
+    public static int cutWeight(CsrGraph csr, int[] edgeWeights, int[] partIds, boolean parallel) {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int n = csr.getVertices();
+        if (!parallel || targets.length < PARALLEL_THRESHOLD) {
+            return cutWeight(offsets, targets, edgeWeights, partIds, 0, n);
+        }
+        return IntStream.range(0, (n + RANGE_SIZE - 1) / RANGE_SIZE).parallel()
+                .map(range -> cutWeight(offsets, targets, edgeWeights, partIds, range * RANGE_SIZE,
+                        Math.min(n, (range + 1) * RANGE_SIZE)))
+                .sum();
+    }
+
+    private static int cutWeight(int[] offsets, int[] targets, int[] edgeWeights, int[] partIds, int from, int to) {
+        int cut = 0;
+        for (int v = from; v < to; v++) {
+            int part = partIds[v];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u > v && partIds[u] != part) {
+                    cut += edgeWeights == null ? 1 : edgeWeights[i];
+                }
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * Total communication volume: for every assigned vertex, the number of other
+     * parts among its neighbours. Vertices outside 0..parts-1 are ignored.
+     */
+    public static long communicationVolume(CsrGraph csr, int[] partIds, int parts, boolean parallel) {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int n = csr.getVertices();
+        if (!parallel || targets.length < PARALLEL_THRESHOLD) {
+            return communicationVolume(offsets, targets, partIds, parts, 0, n);
+        }
+        return IntStream.range(0, (n + RANGE_SIZE - 1) / RANGE_SIZE).parallel()
+                .mapToLong(range -> communicationVolume(offsets, targets, partIds, parts, range * RANGE_SIZE,
+                        Math.min(n, (range + 1) * RANGE_SIZE)))
+                .sum();
+    }
+
+    private static long communicationVolume(int[] offsets, int[] targets, int[] partIds, int parts, int from,
+            int to) {
+        // lastSeen[p] == v + 1 when part p was already counted for vertex v
+        int[] lastSeen = new int[parts];
+        long volume = 0;
+        for (int v = from; v < to; v++) {
+            int part = partIds[v];
+            if (part < 0 || part >= parts) {
+                continue;
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int other = partIds[targets[i]];
+                if (other >= 0 && other < parts && other != part && lastSeen[other] != v + 1) {
+                    lastSeen[other] = v + 1;
+                    volume++;
+                }
+            }
+        }
+        return volume;
+    }
+}
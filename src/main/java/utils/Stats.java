@@ -1,4 +1,209 @@
 package utils;
 
+import model.CsrGraph;
+import model.Graph;
+
+import java.util.Locale;
+
+/**
+ * Partition quality metrics and phase timings of one run. Edge cut and
+ * communication volume come from {@link CutEvaluator}; part sizes, boundary
+ * vertices and, with a union-find over the edges inside each part, connected
+ * components take one more pass over the CSR adjacency. Vertices without a valid
+ * part are counted as unassigned; as in FM, their edges count as cut.
+ */
 public class Stats {
+    public enum Phase {
+        PARSE("parse"),
+        BUILD("build"),
+        GROW("grow"),
+        REFINE("refine"),
+        WRITE("write");
+
+        private final String jsonName;
+
+        Phase(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private int vertices;
+    private int edges;
+    private int parts;
+    private int unassigned;
+    private int cutEdges;
+    private long communicationVolume;
+    private int[] partSizes = new int[0];
+    private int[] boundaryVertices = new int[0];
+    private int[] components = new int[0];
+
+    // phases may be recorded more than once, e.g. one GROW per multi-start attempt
+    public void addPhaseTime(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getPhaseMillis(Phase phase) {
+        return phaseNanos[phase.ordinal()] / 1_000_000;
+    }
+
+    // computes the quality metrics of the graph's current partition into the given number of parts
+    public void computePartitionQuality(Graph graph, int parts) {
+        CsrGraph csr = graph.getCsr();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] partIds = graph.getPartIds();
+        int n = csr.getVertices();
+
+        this.vertices = n;
+        this.edges = graph.getEdges();
+        this.parts = parts;
+        this.unassigned = 0;
+        this.cutEdges = CutEvaluator.countCutEdges(csr, partIds, true);
+        this.communicationVolume = CutEvaluator.communicationVolume(csr, partIds, parts, true);
+        this.partSizes = new int[parts];
+        this.boundaryVertices = new int[parts];
+        this.components = new int[parts];
+
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+        }
+        for (int v = 0; v < n; v++) {
+            int part = partIds[v];
+            if (part < 0 || part >= parts) {
+                unassigned++;
+                continue;
+            }
+            partSizes[part]++;
+            boolean boundary = false;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                int other = partIds[u];
+                if (other < 0 || other >= parts || u == v) {
+                    continue;
+                }
+                if (other != part) {
+                    boundary = true;
+                } else if (u > v) {
+                    union(parent, u, v);
+                }
+            }
+            if (boundary) {
+                boundaryVertices[part]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            int part = partIds[v];
+            if (part >= 0 && part < parts && find(parent, v) == v) {
+                components[part]++;
+            }
+        }
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    public int getParts() {
+        return parts;
+    }
+
+    public int getUnassigned() {
+        return unassigned;
+    }
+
+    public int getCutEdges() {
+        return cutEdges;
+    }
+
+    // sum over vertices of the number of other parts among their neighbours
+    public long getCommunicationVolume() {
+        return communicationVolume;
+    }
+
+    public int[] getPartSizes() {
+        return partSizes.clone();
+    }
+
+    public int[] getBoundaryVertices() {
+        return boundaryVertices.clone();
+    }
+
+    public int[] getComponents() {
+        return components.clone();
+    }
+
+    // largest part relative to the average part size; 1.0 is a perfect split
+    public double getImbalance() {
+        int assigned = vertices - unassigned;
+        if (parts == 0 || assigned == 0) {
+            return 1.0;
+        }
+        int largest = 0;
+        for (int size : partSizes) {
+            largest = Math.max(largest, size);
+        }
+        return largest / ((double) assigned / parts);
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"vertices\": ").append(vertices).append(",\n");
+        json.append("  \"edges\": ").append(edges).append(",\n");
+        json.append("  \"parts\": ").append(parts).append(",\n");
+        json.append("  \"unassigned\": ").append(unassigned).append(",\n");
+        json.append("  \"cutEdges\": ").append(cutEdges).append(",\n");
+        json.append("  \"communicationVolume\": ").append(communicationVolume).append(",\n");
+        json.append("  \"imbalance\": ").append(String.format(Locale.ROOT, "%.4f", getImbalance())).append(",\n");
+        json.append("  \"partSizes\": ").append(jsonArray(partSizes)).append(",\n");
+        json.append("  \"boundaryVertices\": ").append(jsonArray(boundaryVertices)).append(",\n");
+        json.append("  \"components\": ").append(jsonArray(components)).append(",\n");
+        json.append("  \"phaseMillis\": {");
+        for (Phase phase : Phase.values()) {
+            json.append(phase.ordinal() == 0 ? "" : ",").append("\n    \"").append(phase.getJsonName())
+                    .append("\": ").append(String.format(Locale.ROOT, "%.3f", phaseNanos[phase.ordinal()] / 1e6));
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    private static String jsonArray(int[] values) {
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                array.append(", ");
+            }
+            array.append(values[i]);
+        }
+        return array.append(']').toString();
+    }
 }
@@ -0,0 +1,153 @@
+package algorithm;
+
+import model.Graph;
+import model.GraphBuilder;
+import model.PartitionData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmOptimizationTest {
+
+    // two 4-cliques joined by the edge 3-4: the best balanced bisection cuts one edge
+    private static Graph barbell() {
+        GraphBuilder builder = new GraphBuilder(8);
+        for (int offset = 0; offset <= 4; offset += 4) {
+            for (int u = 0; u < 4; u++) {
+                for (int v = u + 1; v < 4; v++) {
+                    builder.addEdge(offset + u, offset + v);
+                }
+            }
+        }
+        builder.addEdge(3, 4);
+        Graph graph = new Graph(builder.build());
+        graph.setPartitions(2);
+        graph.setMinCount(0.25);
+        graph.setMaxCount(0.25);
+        return graph;
+    }
+
+    private static Graph grid(int side, int parts) {
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    builder.addEdge(v, v + 1);
+                }
+                if (row + 1 < side) {
+                    builder.addEdge(v, v + side);
+                }
+            }
+        }
+        Graph graph = new Graph(builder.build());
+        graph.setPartitions(parts);
+        graph.setMinCount(0.1);
+        graph.setMaxCount(0.1);
+        return graph;
+    }
+
+    // every partition gets vertices / parts vertices, scattered at random
+    private static int[] shuffledBalanced(int vertices, int parts, Random random) {
+        int[] partIds = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            partIds[v] = v * parts / vertices;
+        }
+        for (int v = vertices - 1; v > 0; v--) {
+            int other = random.nextInt(v + 1);
+            int swap = partIds[v];
+            partIds[v] = partIds[other];
+            partIds[other] = swap;
+        }
+        return partIds;
+    }
+
+    private static PartitionData assign(Graph graph, int[] partIds) {
+        System.arraycopy(partIds, 0, graph.getPartIds(), 0, partIds.length);
+        PartitionData partitionData = new PartitionData(graph.getPartitions());
+        partitionData.assignFromPartIds(graph.getPartIds());
+        return partitionData;
+    }
+
+    @Test
+    void testFindsTheSingleEdgeCutOfABarbell() {
+        Graph graph = barbell();
+        PartitionData partitionData = assign(graph, new int[] { 0, 1, 0, 1, 0, 1, 0, 1 });
+        assertEquals(9, FmOptimization.countCutEdges(graph));
+
+        FmOptimization.cutEdgesOptimization(graph, partitionData, 10);
+
+        assertEquals(1, FmOptimization.countCutEdges(graph));
+        assertEquals(4, partitionData.getPartitions().get(0).size());
+        assertEquals(4, partitionData.getPartitions().get(1).size());
+        for (int v = 0; v < 8; v++) {
+            assertEquals(graph.getPartId(v), partitionData.getPartOf(v));
+        }
+    }
+
+    @Test
+    void testNeverIncreasesTheCut() {
+        Graph graph = barbell();
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            PartitionData partitionData = assign(graph, shuffledBalanced(8, 2, random));
+            int before = FmOptimization.countCutEdges(graph);
+
+            FmOptimization.cutEdgesOptimization(graph, partitionData, 10);
+
+            assertTrue(FmOptimization.countCutEdges(graph) <= before);
+        }
+    }
+
+    @Test
+    void testKeepsAnOptimalPartition() {
+        Graph graph = barbell();
+        int[] separated = { 0, 0, 0, 0, 1, 1, 1, 1 };
+        PartitionData partitionData = assign(graph, separated);
+
+        FmOptimization.cutEdgesOptimization(graph, partitionData, 10);
+
+        assertEquals(1, FmOptimization.countCutEdges(graph));
+        assertArrayEquals(separated, graph.getPartIds());
+    }
+
+    @Test
+    void testBoundaryModeFindsTheSingleEdgeCut() {
+        Graph graph = barbell();
+        PartitionData partitionData = assign(graph, new int[] { 0, 1, 0, 1, 0, 1, 0, 1 });
+
+        FmOptimization.cutEdgesOptimization(graph, partitionData, 10, true, 0);
+
+        assertEquals(1, FmOptimization.countCutEdges(graph));
+        for (int v = 0; v < 8; v++) {
+            assertEquals(graph.getPartId(v), partitionData.getPartOf(v));
+        }
+    }
+
+    @Test
+    void testBoundaryModeAndEarlyExitLowerTheCutWithinBalance() {
+        Graph graph = grid(12, 4);
+        int[] start = shuffledBalanced(144, 4, new Random(11));
+        assign(graph, start);
+        int startCut = FmOptimization.countCutEdges(graph);
+
+        for (int limit : new int[] { 0, 1, 5, 50 }) {
+            for (boolean boundaryOnly : new boolean[] { false, true }) {
+                PartitionData partitionData = assign(graph, start);
+                FmOptimization.cutEdgesOptimization(graph, partitionData, 20, boundaryOnly, limit);
+
+                assertTrue(FmOptimization.countCutEdges(graph) < startCut,
+                        "boundaryOnly=" + boundaryOnly + ", maxNonImprovingMoves=" + limit);
+                int[] sizes = new int[4];
+                for (int partId : graph.getPartIds()) {
+                    sizes[partId]++;
+                }
+                for (int size : sizes) {
+                    assertTrue(size >= graph.getMinCount() && size <= graph.getMaxCount());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GainBucketQueueTest {
+
+    @Test
+    void testPeekMaxFollowsInsertsAndRemovals() {
+        GainBucketQueue queue = new GainBucketQueue(5, 3);
+        assertTrue(queue.isEmpty());
+        assertEquals(-1, queue.peekMax());
+
+        queue.insert(0, -2);
+        queue.insert(1, 3);
+        queue.insert(2, 1);
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.peekMax());
+
+        queue.remove(1);
+        assertFalse(queue.contains(1));
+        assertEquals(2, queue.peekMax());
+        queue.remove(2);
+        assertEquals(0, queue.peekMax());
+        queue.remove(0);
+        assertTrue(queue.isEmpty());
+        assertEquals(-1, queue.peekMax());
+    }
+
+    @Test
+    void testUpdateMovesVertexBetweenBuckets() {
+        GainBucketQueue queue = new GainBucketQueue(3, 4);
+        queue.insert(0, 2);
+        queue.insert(1, 1);
+        queue.insert(2, 0);
+
+        queue.update(2, 4);
+        assertEquals(2, queue.peekMax());
+        assertEquals(4, queue.getGain(2));
+
+        queue.update(2, -4);
+        assertEquals(0, queue.peekMax());
+        assertEquals(3, queue.size());
+
+        // inserting a queued vertex again only updates its gain
+        queue.insert(1, 3);
+        assertEquals(1, queue.peekMax());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    void testGainsBeyondTheBoundShareTheOuterBuckets() {
+        GainBucketQueue queue = new GainBucketQueue(3, 2);
+        queue.insert(0, 10);
+        queue.insert(1, -10);
+        queue.insert(2, 1);
+
+        assertEquals(0, queue.peekMax());
+        assertEquals(10, queue.getGain(0));
+        queue.remove(0);
+        assertEquals(2, queue.peekMax());
+        queue.remove(2);
+        assertEquals(1, queue.peekMax());
+    }
+
+    @Test
+    void testClearEmptiesTheQueue() {
+        GainBucketQueue queue = new GainBucketQueue(4, 2);
+        for (int v = 0; v < 4; v++) {
+            queue.insert(v, v - 2);
+        }
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        for (int v = 0; v < 4; v++) {
+            assertFalse(queue.contains(v));
+        }
+        queue.insert(3, -1);
+        assertEquals(3, queue.peekMax());
+    }
+}
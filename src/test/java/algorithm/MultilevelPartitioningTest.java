@@ -0,0 +1,182 @@
+package algorithm;
+
+import model.CsrGraph;
+import model.Graph;
+import model.GraphBuilder;
+import model.PartitionData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultilevelPartitioningTest {
+
+    private static CsrGraph gridCsr(int side) {
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    builder.addEdge(v, v + 1);
+                }
+                if (row + 1 < side) {
+                    builder.addEdge(v, v + side);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static MultilevelPartitioning.Level unitLevel(CsrGraph csr) {
+        int[] edgeWeights = new int[csr.getTargets().length];
+        Arrays.fill(edgeWeights, 1);
+        int[] vertexWeights = new int[csr.getVertices()];
+        Arrays.fill(vertexWeights, 1);
+        return new MultilevelPartitioning.Level(csr, edgeWeights, vertexWeights);
+    }
+
+    private static long sum(int[] values) {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static int edgeWeight(MultilevelPartitioning.Level level, int u, int v) {
+        int[] offsets = level.csr.getOffsets();
+        int[] targets = level.csr.getTargets();
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            if (targets[i] == v) {
+                return level.edgeWeights[i];
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    void testCoarsenMatchesAdjacentPairs() {
+        MultilevelPartitioning.Level fine = unitLevel(gridCsr(10));
+        MultilevelPartitioning.Level coarse = MultilevelPartitioning.coarsen(fine, 2, new Random(1));
+
+        int[] members = new int[coarse.csr.getVertices()];
+        int[] first = new int[coarse.csr.getVertices()];
+        Arrays.fill(first, -1);
+        for (int v = 0; v < fine.csr.getVertices(); v++) {
+            int c = fine.coarseMap[v];
+            assertTrue(c >= 0 && c < coarse.csr.getVertices());
+            members[c]++;
+            if (first[c] == -1) {
+                first[c] = v;
+            } else {
+                assertEquals(1, edgeWeight(fine, first[c], v), "matched vertices must be adjacent");
+            }
+        }
+        for (int c = 0; c < members.length; c++) {
+            assertTrue(members[c] == 1 || members[c] == 2);
+            assertEquals(members[c], coarse.vertexWeights[c]);
+        }
+        assertTrue(coarse.csr.getVertices() < fine.csr.getVertices());
+    }
+
+    @Test
+    void testContractionKeepsWeights() {
+        MultilevelPartitioning.Level fine = unitLevel(gridCsr(12));
+        MultilevelPartitioning.Level coarse = MultilevelPartitioning.coarsen(fine, 2, new Random(7));
+        MultilevelPartitioning.Level coarser = MultilevelPartitioning.coarsen(coarse, 4, new Random(7));
+
+        for (MultilevelPartitioning.Level[] pair : new MultilevelPartitioning.Level[][] { { fine, coarse },
+                { coarse, coarser } }) {
+            MultilevelPartitioning.Level from = pair[0];
+            MultilevelPartitioning.Level to = pair[1];
+            assertEquals(sum(from.vertexWeights), sum(to.vertexWeights));
+
+            // every fine edge either lands inside one coarse vertex or adds to one coarse edge
+            int[] offsets = from.csr.getOffsets();
+            int[] targets = from.csr.getTargets();
+            long internal = 0;
+            for (int v = 0; v < from.csr.getVertices(); v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (from.coarseMap[v] == from.coarseMap[targets[i]]) {
+                        internal += from.edgeWeights[i];
+                    }
+                }
+            }
+            assertEquals(sum(from.edgeWeights) - internal, sum(to.edgeWeights));
+
+            int[] coarseOffsets = to.csr.getOffsets();
+            int[] coarseTargets = to.csr.getTargets();
+            for (int c = 0; c < to.csr.getVertices(); c++) {
+                for (int i = coarseOffsets[c]; i < coarseOffsets[c + 1]; i++) {
+                    int d = coarseTargets[i];
+                    assertNotEquals(c, d, "contraction must drop self loops");
+                    if (i > coarseOffsets[c]) {
+                        assertTrue(coarseTargets[i - 1] < d, "rows must be sorted without duplicates");
+                    }
+                    assertEquals(to.edgeWeights[i], edgeWeight(to, d, c), "edge weights must be symmetric");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testProjectedPartitionIsCompleteAndBalanced() {
+        int parts = 4;
+        for (long seed = 1; seed <= 10; seed++) {
+            Graph graph = new Graph(gridCsr(30));
+            graph.setPartitions(parts);
+            graph.setMinCount(0.1);
+            graph.setMaxCount(0.1);
+            PartitionData partitionData = new PartitionData(parts);
+
+            boolean balanced = MultilevelPartitioning.multilevelPartitioning(graph, parts, partitionData, 0.1f, 10,
+                    new Random(seed));
+
+            assertTrue(balanced, "seed " + seed);
+            int[] sizes = new int[parts];
+            for (int partId : graph.getPartIds()) {
+                assertTrue(partId >= 0 && partId < parts, "every vertex must be assigned");
+                sizes[partId]++;
+            }
+            for (int p = 0; p < parts; p++) {
+                assertTrue(sizes[p] >= graph.getMinCount() && sizes[p] <= graph.getMaxCount(),
+                        "seed " + seed + " sizes " + Arrays.toString(sizes));
+                assertEquals(sizes[p], partitionData.getPartitions().get(p).getPartitionVertexCount());
+            }
+        }
+    }
+
+    @Test
+    void testLimitsComeFromAccuracyAndClampedParts() {
+        // no limits set on the graph: they must follow the accuracy argument
+        Graph graph = new Graph(gridCsr(30));
+        PartitionData partitionData = new PartitionData(6);
+        assertTrue(MultilevelPartitioning.multilevelPartitioning(graph, 6, partitionData, 0.05f, 10,
+                new Random(3)));
+        int[] sizes = new int[6];
+        for (int partId : graph.getPartIds()) {
+            sizes[partId]++;
+        }
+        for (int size : sizes) {
+            assertTrue(size >= 143 && size <= 157, Arrays.toString(sizes));
+        }
+
+        // more parts than vertices: one vertex per part
+        Graph small = new Graph(gridCsr(3));
+        small.setPartitions(20);
+        small.setMinCount(0.1);
+        small.setMaxCount(0.1);
+        PartitionData smallData = new PartitionData(20);
+        assertTrue(MultilevelPartitioning.multilevelPartitioning(small, 20, smallData, 0.1f, 10, new Random(3)));
+        assertEquals(9, small.getPartitions());
+        int[] smallSizes = new int[9];
+        for (int partId : small.getPartIds()) {
+            smallSizes[partId]++;
+        }
+        for (int size : smallSizes) {
+            assertEquals(1, size, Arrays.toString(smallSizes));
+        }
+    }
+}
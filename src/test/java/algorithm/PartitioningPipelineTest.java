@@ -0,0 +1,141 @@
+package algorithm;
+
+import model.Graph;
+import model.GraphBuilder;
+import model.PartitionData;
+import org.junit.jupiter.api.Test;
+import utils.Stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitioningPipelineTest {
+
+    private static Graph grid(int side) {
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    builder.addEdge(v, v + 1);
+                }
+                if (row + 1 < side) {
+                    builder.addEdge(v, v + side);
+                }
+            }
+        }
+        Graph graph = new Graph(builder.build());
+        graph.setPartitions(4);
+        graph.setMinCount(0.1);
+        graph.setMaxCount(0.1);
+        return graph;
+    }
+
+    @Test
+    void testListenerSeesPhasesAndPasses() {
+        Graph graph = grid(20);
+        List<Stats.Phase> phases = new ArrayList<>();
+        int[] passes = new int[1];
+        ProgressListener listener = new ProgressListener() {
+            @Override
+            public void phaseStarted(Stats.Phase phase) {
+                phases.add(phase);
+            }
+
+            @Override
+            public void passCompleted(int pass, int maxPasses, int cut) {
+                passes[0]++;
+                assertEquals(cut, FmOptimization.countCutEdges(graph));
+            }
+        };
+
+        PartitioningPipeline.partition(graph, 4, new PartitionData(4), 0.1f,
+                PartitioningPipeline.Algorithm.REGION_GROWING, 10, false, new Random(3), null, listener);
+
+        assertEquals(List.of(Stats.Phase.GROW, Stats.Phase.REFINE), phases);
+        assertTrue(passes[0] > 0);
+    }
+
+    @Test
+    void testMoveRingReplaysRefinement() {
+        Graph graph = grid(20);
+        MoveRing moves = new MoveRing(1 << 16);
+        int[][] grown = new int[1][];
+        ProgressListener listener = new ProgressListener() {
+            @Override
+            public void phaseStarted(Stats.Phase phase) {
+                if (phase == Stats.Phase.REFINE) {
+                    grown[0] = graph.getPartIds().clone();
+                }
+            }
+
+            @Override
+            public MoveRing getMoveRing() {
+                return moves;
+            }
+        };
+
+        PartitioningPipeline.partition(graph, 4, new PartitionData(4), 0.1f,
+                PartitioningPipeline.Algorithm.REGION_GROWING, 10, false, new Random(5), null, listener);
+
+        int[] buffer = new int[4 * (1 << 16)];
+        int count = moves.drain(buffer, 1 << 16);
+        assertTrue(count > 1);
+        assertEquals(MoveRing.RESET, buffer[0]);
+        int[] replayed = grown[0];
+        for (int i = 1; i < count; i++) {
+            int vertex = buffer[i * 4];
+            assertEquals(replayed[vertex], buffer[i * 4 + 1]);
+            replayed[vertex] = buffer[i * 4 + 2];
+        }
+        assertArrayEquals(graph.getPartIds(), replayed);
+        assertEquals(FmOptimization.countCutEdges(graph), buffer[(count - 1) * 4 + 3]);
+        assertEquals(0, moves.drain(buffer, 1 << 16));
+    }
+
+    @Test
+    void testMoveRingReportsOverwrittenMoves() {
+        MoveRing moves = new MoveRing(4);
+        int[] buffer = new int[4 * 4];
+        for (int i = 0; i < 6; i++) {
+            moves.publish(i, 0, 1, 10 - i);
+        }
+        assertEquals(MoveRing.LOST, moves.drain(buffer, 4));
+        moves.publish(6, 1, 0, 3);
+        assertEquals(1, moves.drain(buffer, 4));
+        assertEquals(6, buffer[0]);
+        assertEquals(3, buffer[3]);
+    }
+
+    @Test
+    void testCancelledRunKeepsCompletePartition() {
+        Graph expected = grid(20);
+        RegionGrowing.regionGrowing(expected, 4, new PartitionData(4), 0.1f, new Random(3));
+        Graph graph = grid(20);
+        PartitionData partitionData = new PartitionData(4);
+        ProgressListener cancelled = new ProgressListener() {
+            @Override
+            public void passCompleted(int pass, int maxPasses, int cut) {
+                fail("FM ran a pass after cancellation");
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        PartitioningPipeline.partition(graph, 4, partitionData, 0.1f, PartitioningPipeline.Algorithm.REGION_GROWING,
+                100, false, new Random(3), null, cancelled);
+
+        int assigned = 0;
+        for (int part = 0; part < 4; part++) {
+            assigned += partitionData.getPartitions().get(part).size();
+        }
+        assertEquals(400, assigned);
+        assertEquals(FmOptimization.countCutEdges(expected), FmOptimization.countCutEdges(graph));
+    }
+}
@@ -0,0 +1,122 @@
+package algorithm;
+
+import model.Graph;
+import model.GraphBuilder;
+import model.PartitionData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionGrowingTest {
+    private static final float ACCURACY = 0.1f;
+
+    private static Graph grid(int side) {
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    builder.addEdge(v, v + 1);
+                }
+                if (row + 1 < side) {
+                    builder.addEdge(v, v + side);
+                }
+            }
+        }
+        return new Graph(builder.build());
+    }
+
+    // every vertex is in a partition and every partition is within the accuracy region growing uses
+    private static void assertCompleteAndBalanced(Graph graph, PartitionData partitionData, int parts,
+            String run) {
+        float average = (float) graph.getVertices() / parts;
+        int min = (int) Math.floor(average * (1.0f - ACCURACY));
+        int max = (int) Math.ceil(average * (1.0f + ACCURACY));
+        int[] sizes = new int[parts];
+        for (int v = 0; v < graph.getVertices(); v++) {
+            int partId = graph.getPartId(v);
+            assertTrue(partId >= 0 && partId < parts, run + ": vertex " + v + " is unassigned");
+            assertEquals(partId, partitionData.getPartOf(v), run);
+            sizes[partId]++;
+        }
+        for (int p = 0; p < parts; p++) {
+            assertTrue(sizes[p] >= min && sizes[p] <= max, run + ": sizes " + Arrays.toString(sizes));
+            assertEquals(sizes[p], partitionData.getPartitions().get(p).getPartitionVertexCount(), run);
+        }
+    }
+
+    @Test
+    void testRegionGrowingAssignsEveryVertexWithinAccuracy() {
+        for (int side : new int[] { 12, 30 }) {
+            for (int parts : new int[] { 2, 4, 8 }) {
+                for (long seed = 1; seed <= 20; seed++) {
+                    Graph graph = grid(side);
+                    PartitionData partitionData = new PartitionData(parts);
+                    String run = side + "x" + side + " k=" + parts + " seed " + seed;
+
+                    assertTrue(RegionGrowing.regionGrowing(graph, parts, partitionData, ACCURACY, new Random(seed)),
+                            run);
+                    assertCompleteAndBalanced(graph, partitionData, parts, run);
+                }
+            }
+        }
+    }
+
+    // the hub puts every leaf into the frontier at once, well past its initial capacity
+    @Test
+    void testRegionGrowingOnAStarGrowsTheFrontierQueue() {
+        GraphBuilder builder = new GraphBuilder(1001);
+        for (int leaf = 1; leaf <= 1000; leaf++) {
+            builder.addEdge(0, leaf);
+        }
+        Graph graph = new Graph(builder.build());
+        PartitionData partitionData = new PartitionData(1);
+
+        assertTrue(RegionGrowing.regionGrowing(graph, 1, partitionData, ACCURACY, new Random(3)));
+        assertCompleteAndBalanced(graph, partitionData, 1, "star");
+    }
+
+    @Test
+    void testSameSeedGivesSamePartition() {
+        Graph first = grid(30);
+        Graph second = grid(30);
+        RegionGrowing.regionGrowing(first, 4, new PartitionData(4), ACCURACY, new Random(5));
+        RegionGrowing.regionGrowing(second, 4, new PartitionData(4), ACCURACY, new Random(5));
+
+        assertArrayEquals(first.getPartIds(), second.getPartIds());
+    }
+
+    @Test
+    void testParallelRegionGrowingAssignsEveryVertexWithinAccuracy() {
+        for (int side : new int[] { 12, 30 }) {
+            for (int parts : new int[] { 2, 4, 8 }) {
+                for (long seed = 1; seed <= 20; seed++) {
+                    Graph graph = grid(side);
+                    PartitionData partitionData = new PartitionData(parts);
+                    String run = side + "x" + side + " k=" + parts + " seed " + seed;
+
+                    assertTrue(RegionGrowing.parallelRegionGrowing(graph, parts, partitionData, ACCURACY,
+                            new Random(seed)), run);
+                    assertCompleteAndBalanced(graph, partitionData, parts, run);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelRegionGrowingIsRepeatableForSeed() {
+        int[] first = null;
+        for (int run = 0; run < 5; run++) {
+            Graph graph = grid(60);
+            RegionGrowing.parallelRegionGrowing(graph, 8, new PartitionData(8), ACCURACY, new Random(17));
+            if (first == null) {
+                first = graph.getPartIds().clone();
+            } else {
+                assertArrayEquals(first, graph.getPartIds(), "run " + run);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRunPartitionsManifestAndWritesSummary() throws IOException {
+        String square = "4\n0;1;2;3\n0;1;2;3;4\n1;2;0;3;0;3;1;2\n0;2;4;6;8\n";
+        Files.writeString(tempDir.resolve("a.csrrg"), square);
+        Files.writeString(tempDir.resolve("b.csrrg"), square);
+        Path manifest = tempDir.resolve("graphs.txt");
+        Files.writeString(manifest, "# nightly set\na.csrrg\n\nb.csrrg\n");
+        Path summary = tempDir.resolve("summary.csv");
+
+        int exitCode = BatchRunner.run(new String[] { "--input", manifest.toString(), "--parts", "2",
+                "--threads", "2", "--summary", summary.toString(), "--seed", "1" });
+
+        assertEquals(0, exitCode);
+        List<String> rows = Files.readAllLines(summary);
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(1).startsWith(tempDir.resolve("a.csrrg").toString() + ",4,4,2,"));
+        assertTrue(rows.get(2).endsWith(",ok"));
+        assertTrue(Files.exists(tempDir.resolve("a.out.csrrg")));
+        assertTrue(Files.exists(tempDir.resolve("b.out.csrrg")));
+    }
+
+    @Test
+    void testInputsWithTheSameOutputNameAreNotBothRun() throws IOException {
+        String square = "4\n0;1;2;3\n0;1;2;3;4\n1;2;0;3;0;3;1;2\n0;2;4;6;8\n";
+        Path text = tempDir.resolve("a.csrrg");
+        Files.writeString(text, square);
+        Files.writeString(tempDir.resolve("b.csrrg"), square);
+        Files.copy(text, tempDir.resolve("a.csrrgbin"));
+        Path summary = tempDir.resolve("summary.csv");
+
+        int exitCode = BatchRunner.run(new String[] { "--input", tempDir.toString(), "--parts", "2",
+                "--summary", summary.toString(), "--seed", "1" });
+
+        assertEquals(1, exitCode);
+        List<String> rows = Files.readAllLines(summary);
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(1).startsWith(text.toString() + ",") && rows.get(1).endsWith(",ok"), rows.get(1));
+        assertTrue(rows.get(2).startsWith(tempDir.resolve("a.csrrgbin") + ",")
+                && rows.get(2).contains("a.out.csrrg is also written for " + text), rows.get(2));
+        assertTrue(rows.get(3).endsWith(",ok"), rows.get(3));
+    }
+
+    @Test
+    void testWriteFailureMarksRowFailed() throws IOException {
+        Files.writeString(tempDir.resolve("a.csrrg"), "4\n0;1;2;3\n0;1;2;3;4\n1;2;0;3;0;3;1;2\n0;2;4;6;8\n");
+        Path summary = tempDir.resolve("summary.csv");
+
+        int exitCode = BatchRunner.run(new String[] { "--input", tempDir.toString(), "--parts", "2",
+                "--output-dir", tempDir.resolve("missing").toString(), "--summary", summary.toString() });
+
+        assertEquals(1, exitCode);
+        List<String> rows = Files.readAllLines(summary);
+        assertEquals(2, rows.size());
+        assertFalse(rows.get(1).endsWith(",ok"), rows.get(1));
+    }
+}
@@ -0,0 +1,105 @@
+package cli;
+
+import io.GraphGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRunWritesPartitionedTextFile() throws IOException {
+        Path input = tempDir.resolve("square.csrrg");
+        Files.writeString(input, "4\n0;1;2;3\n0;1;2;3;4\n1;2;0;3;0;3;1;2\n0;2;4;6;8\n");
+        Path output = tempDir.resolve("square.out.csrrg");
+
+        int exitCode = CommandLineRunner.run(new String[] { "--input", input.toString(), "--parts", "2",
+                "--accuracy", "0", "--seed", "7", "--output", output.toString() });
+
+        assertEquals(0, exitCode);
+        List<String> lines = Files.readAllLines(output);
+        assertEquals("4", lines.get(0));
+        assertEquals(6, lines.size());
+    }
+
+    @Test
+    void testWriteFailureFailsTheRun() throws IOException {
+        Path input = tempDir.resolve("square.csrrg");
+        Files.writeString(input, "4\n0;1;2;3\n0;1;2;3;4\n1;2;0;3;0;3;1;2\n0;2;4;6;8\n");
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode;
+        try {
+            System.setOut(new PrintStream(out, true));
+            System.setErr(new PrintStream(new ByteArrayOutputStream(), true));
+            exitCode = CommandLineRunner.run(new String[] { "--input", input.toString(), "--parts", "2",
+                    "--output", tempDir.resolve("missing").resolve("out.csrrg").toString() });
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+
+        assertEquals(1, exitCode);
+        assertFalse(out.toString().contains("Output saved to"));
+    }
+
+    @Test
+    void testMultiStartIsRepeatableForSeed() throws IOException {
+        Path input = tempDir.resolve("planted.csrrg");
+        GraphGenerator.generate(GraphGenerator.Type.PLANTED_PARTITION, 400, 1600, 3, false, input.toString());
+        Path first = tempDir.resolve("first.csrrg");
+        Path second = tempDir.resolve("second.csrrg");
+
+        for (Path output : List.of(first, second)) {
+            assertEquals(0, CommandLineRunner.run(new String[] { "--input", input.toString(), "--parts", "4",
+                    "--seed", "11", "--starts", "3", "--output", output.toString() }));
+        }
+
+        assertEquals(Files.readString(first), Files.readString(second));
+    }
+
+    @Test
+    void testRunRejectsInvalidArguments() {
+        assertEquals(2, CommandLineRunner.run(new String[] { "--parts", "2" }));
+        assertEquals(2, CommandLineRunner.run(new String[] { "--input", "graph.csrrg", "--parts", "0" }));
+        assertEquals(2, CommandLineRunner.run(new String[] { "--input", "graph.csrrg", "--parts", "2",
+                "--format", "xml" }));
+        assertEquals(2, CommandLineRunner.run(new String[] { "--input", "graph.csrrg", "--parts", "2",
+                "--starts", "0" }));
+        assertEquals(2, CommandLineRunner.run(new String[] { "--input", "graph.csrrg", "--parts", "2",
+                "--fm-iterations", "0" }));
+    }
+
+    @Test
+    void testTimingIsOnlyPrintedAfterASuccessfulRun() {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out, true));
+            System.setErr(new PrintStream(new ByteArrayOutputStream(), true));
+            assertEquals(0, CommandLineRunner.run(new String[] { "--help" }));
+            assertEquals(2, CommandLineRunner.run(new String[] { "--parts", "2" }));
+            assertEquals(1, CommandLineRunner.run(new String[] { "--input",
+                    tempDir.resolve("missing.csrrg").toString(), "--parts", "2" }));
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+
+        assertTrue(out.toString().contains("Usage: java -jar "));
+        assertFalse(out.toString().contains("peak RSS"));
+    }
+}
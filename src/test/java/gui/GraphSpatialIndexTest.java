@@ -0,0 +1,54 @@
+package gui;
+
+import model.CsrGraph;
+import model.GraphBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSpatialIndexTest {
+
+    @Test
+    void testQueryLongEdgesReturnsEveryCrossingEdgeOnce() {
+        int vertices = 2000;
+        Random random = new Random(5);
+        float[] x = new float[vertices];
+        float[] y = new float[vertices];
+        for (int v = 0; v < vertices; v++) {
+            x[v] = random.nextFloat() * 10_000;
+            y[v] = random.nextFloat() * 6_000;
+        }
+        GraphBuilder builder = new GraphBuilder(vertices);
+        for (int e = 0; e < 3000; e++) {
+            builder.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+        }
+        CsrGraph csr = builder.build();
+        GraphSpatialIndex index = new GraphSpatialIndex(x, y, csr);
+        int[] longEdges = index.getLongEdges();
+        assertTrue(longEdges.length > 1000);
+
+        for (int query = 0; query < 200; query++) {
+            double size = 20 + random.nextDouble() * 2000;
+            Rectangle2D.Double rect = new Rectangle2D.Double(random.nextDouble() * 10_000,
+                    random.nextDouble() * 6_000, size, size);
+            // the margin covers rounding where a line only touches a cell border
+            int count = index.queryLongEdges(rect.x - 1, rect.y - 1, rect.getMaxX() + 1, rect.getMaxY() + 1);
+            int[] seen = new int[longEdges.length / 2];
+            for (int k = 0; k < count; k++) {
+                seen[index.getLongEdgeResult()[k]]++;
+            }
+            for (int e = 0; e < seen.length; e++) {
+                assertTrue(seen[e] <= 1, "edge " + e + " returned twice");
+                int v = longEdges[2 * e];
+                int u = longEdges[2 * e + 1];
+                if (new Line2D.Float(x[v], y[v], x[u], y[u]).intersects(rect)) {
+                    assertEquals(1, seen[e], "edge " + e + " crosses query " + query);
+                }
+            }
+        }
+    }
+}
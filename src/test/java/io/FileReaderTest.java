@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -34,19 +36,6 @@ class FileReaderTest {
         return filePath.toFile();
     }
 
-    private byte[] encodeSigned16BitForTest(int value) {
-        byte[] bytes = new byte[2];
-        int signBit = (value < 0) ? 1 : 0;
-        int magnitude = Math.abs(value);
-        if (magnitude > 0x7FFF) {
-            throw new IllegalArgumentException("Test value magnitude too large for 15 bits: " + magnitude);
-        }
-        int encodedValue = (signBit << 15) | magnitude;
-        bytes[0] = (byte) ((encodedValue >> 8) & 0xFF);
-        bytes[1] = (byte) (encodedValue & 0xFF);
-        return bytes;
-    }
-
     @Test
     void testParseSimpleCsrrgFile() throws IOException {
         String fileContent = "3\n" +
@@ -69,6 +58,26 @@ class FileReaderTest {
         assertTrue(data.getRawOffsetLines() == null || data.getRawOffsetLines().isEmpty());
     }
 
+    @Test
+    void testParseCsrrgFileWithCrlfAndMalformedTokens() throws IOException {
+        String fileContent = "3\r\n" +
+                "0; 1 ;2;\r\n" +
+                "0;x;-1;99999999999\r\n" +
+                "0;1;1;2\r\n" +
+                "0;2;3\r\n";
+
+        File testFile = createTemporaryTextFile(fileContent, "crlf.csrrg");
+        FileReader fileReader = new FileReader();
+        ParsedData data = fileReader.parseFile(testFile.getAbsolutePath());
+
+        assertEquals(3, data.getLine1());
+        assertArrayEquals(new int[] { 0, 1, 2 }, data.getLine2Array());
+        assertArrayEquals(new int[] { 0, -1 }, data.getLine3Array());
+        assertArrayEquals(new int[] { 0, 1, 1, 2 }, data.getEdgesArray());
+        assertArrayEquals(new int[] { 0, 2, 3 }, data.getRowPointersArray());
+        assertEquals(1, data.getNumberOfPartitions());
+    }
+
     @Test
     void testParsePartitionedCsrrgFile() throws IOException {
         String fileContent = "4\n" +
@@ -146,34 +155,6 @@ class FileReaderTest {
         assertEquals(-32767, decodeSigned16BitMagnitude((short) ((1 << 15) | 0x7FFF)));
     }
 
-    @Test
-    void testConvertBinaryToTemporaryTextFile_SimpleLine() throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream dos = new DataOutputStream(baos);
-
-        dos.writeInt(2);
-
-        byte[] val1Bytes = encodeSigned16BitForTest(10);
-        dos.write(val1Bytes);
-
-        byte[] delta1Bytes = encodeSigned16BitForTest(2);
-        dos.write(delta1Bytes);
-        dos.close();
-
-        byte[] binaryContent = baos.toByteArray();
-        File binaryTestFile = createTemporaryBinaryFile(binaryContent, "test_line.csrrgbin");
-
-        FileReader fileReader = new FileReader();
-        String tempTextFilePath = fileReader.convertBinaryToTemporaryTextFile(binaryTestFile.getAbsolutePath());
-
-        assertNotNull(tempTextFilePath);
-        File tempTextFile = new File(tempTextFilePath);
-        assertTrue(tempTextFile.exists());
-
-        String textContent = Files.readString(Path.of(tempTextFilePath));
-        assertEquals("10;12", textContent.trim());
-    }
-
     @Test
     void testParseFile_EmptyFile() throws IOException {
         File emptyFile = createTemporaryTextFile("", "empty.csrrg");
@@ -184,17 +165,42 @@ class FileReaderTest {
     }
 
     @Test
-    void testConvertBinaryToTemporaryTextFile_CorruptedLength() throws IOException {
+    void testParseBinaryFile_BothSeparatorByteOrders() throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream dos = new DataOutputStream(baos);
-        dos.writeInt(5);
-        dos.writeShort(10);
-        dos.close();
-        byte[] binaryContent = baos.toByteArray();
-        File corruptedFile = createTemporaryBinaryFile(binaryContent, "corrupted.csrrgbin");
+        ByteBuffer bigEndian = ByteBuffer.allocate(8).putLong(0xDEADBEEFCAFEBABEL);
+        ByteBuffer littleEndian = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0xDEADBEEFCAFEBABEL);
+        FileWriter.encodeVByte(baos, 300);
+        baos.write(bigEndian.array());
+        for (int value : new int[] { 0, 1, 2 })
+            FileWriter.encodeVByte(baos, value);
+        baos.write(littleEndian.array());
+        for (int value : new int[] { 0, 1, 2, 3 })
+            FileWriter.encodeVByte(baos, value);
+        baos.write(bigEndian.array());
+        for (int value : new int[] { 0, 1, 1, 2 })
+            FileWriter.encodeVByte(baos, value);
+        baos.write(littleEndian.array());
+        for (int value : new int[] { 0, 2, 3 })
+            FileWriter.encodeVByte(baos, value);
+
+        File binaryFile = createTemporaryBinaryFile(baos.toByteArray(), "graph.bin");
+        FileReader fileReader = new FileReader();
+        ParsedData data = fileReader.parseBinaryFile(binaryFile.getAbsolutePath());
+
+        assertEquals(300, data.getLine1());
+        assertArrayEquals(new int[] { 0, 1, 2 }, data.getLine2Array());
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, data.getLine3Array());
+        assertArrayEquals(new int[] { 0, 1, 1, 2 }, data.getEdgesArray());
+        assertArrayEquals(new int[] { 0, 2, 3 }, data.getRowPointersArray());
+        assertEquals(1, data.getNumberOfPartitions());
+    }
+
+    @Test
+    void testParseBinaryFile_TruncatedValue() throws IOException {
+        File truncatedFile = createTemporaryBinaryFile(new byte[] { 0x03, (byte) 0x81 }, "truncated.bin");
         FileReader fileReader = new FileReader();
         assertThrows(IOException.class, () -> {
-            fileReader.convertBinaryToTemporaryTextFile(corruptedFile.getAbsolutePath());
+            fileReader.parseBinaryFile(truncatedFile.getAbsolutePath());
         });
     }
 }
\ No newline at end of file
@@ -108,6 +108,41 @@ class FileWriterTest {
         assertEquals(6, lines.size());
     }
 
+    @Test
+    void testWriteBinaryPartitionedGraph() throws IOException {
+        Path outputPath = tempDir.resolve("test_partitioned_out.bin");
+
+        ParsedData parsedData = new ParsedData();
+        parsedData.setLine1(4);
+        parsedData.setLine2(Arrays.asList(0, 1, 2, 3));
+        parsedData.setLine3(Arrays.asList(0, 1, 2, 3, 4));
+
+        Graph graph = new Graph(4);
+        graph.setParsedData(parsedData);
+        graph.setPartitions(2);
+        graph.getNode(0).addNeighbour(1);
+        graph.getNode(1).addNeighbour(0);
+        graph.getNode(1).addNeighbour(2);
+        graph.getNode(2).addNeighbour(1);
+        graph.getNode(2).addNeighbour(3);
+        graph.getNode(3).addNeighbour(2);
+
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.getPartitions().set(0, new Partition(0, 0, Arrays.asList(1, 0)));
+        partitionData.getPartitions().set(1, new Partition(1, 0, Arrays.asList(3, 2)));
+
+        FileWriter.writeBinary(outputPath.toString(), parsedData, partitionData, graph, 2);
+
+        List<int[]> sections = VByteDecoder.decode(outputPath.toString());
+        assertEquals(6, sections.size());
+        assertArrayEquals(new int[] { 4 }, sections.get(0));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, sections.get(1));
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, sections.get(2));
+        assertArrayEquals(new int[] { 0, 1, 1, 0, 2, 3, 3, 2 }, sections.get(3));
+        assertArrayEquals(new int[] { 0, 2, 4 }, sections.get(4));
+        assertArrayEquals(new int[] { 4, 6, 8 }, sections.get(5));
+    }
+
     @Test
     void testEncodeVByte() throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
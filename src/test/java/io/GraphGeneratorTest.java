@@ -0,0 +1,87 @@
+package io;
+
+import model.ParsedData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGenerateGridText() throws IOException {
+        Path output = tempDir.resolve("grid.csrrg");
+
+        GraphGenerator.Result result = GraphGenerator.generate(GraphGenerator.Type.GRID, 4, 4, 1, false,
+                output.toString());
+
+        assertEquals(4, result.getVertices());
+        assertEquals(4, result.getEdges());
+        assertEquals(List.of("2", "0;1;0;1", "0;2;4", "0;1;2;1;3;2;3;3", "0;3;5;7;8"), Files.readAllLines(output));
+    }
+
+    @Test
+    void testGenerateTextAndBinaryDecodeToSameGraph() throws IOException {
+        for (GraphGenerator.Type type : GraphGenerator.Type.values()) {
+            Path text = tempDir.resolve(type.getOptionName() + ".csrrg");
+            Path binary = tempDir.resolve(type.getOptionName() + ".bin");
+            GraphGenerator.Result result = GraphGenerator.generate(type, 500, 2000, 3, false, text.toString());
+            GraphGenerator.generate(type, 500, 2000, 3, true, binary.toString());
+
+            FileReader reader = new FileReader();
+            ParsedData fromText = reader.parseFile(text.toString());
+            ParsedData fromBinary = reader.parseBinaryInput(binary.toString());
+            assertEquals(fromText.getLine1(), fromBinary.getLine1(), type.name());
+            assertArrayEquals(fromText.getLine2Array(), fromBinary.getLine2Array(), type.name());
+            assertArrayEquals(fromText.getLine3Array(), fromBinary.getLine3Array(), type.name());
+            assertArrayEquals(fromText.getEdgesArray(), fromBinary.getEdgesArray(), type.name());
+            assertArrayEquals(fromText.getRowPointersArray(), fromBinary.getRowPointersArray(), type.name());
+            int[] rowPointers = fromText.getRowPointersArray();
+            assertEquals(result.getVertices() + 1, rowPointers.length, type.name());
+            assertEquals(result.getVertices() + result.getEdges(), rowPointers[rowPointers.length - 1], type.name());
+            assertEquals(result.getVertices(), fromText.getLine2Array().length, type.name());
+        }
+    }
+
+    // every group lists its vertex and then neighbours; the graph is the set of distinct pairs
+    @Test
+    void testReportedEdgesAreDistinctUndirectedPairs() throws IOException {
+        for (GraphGenerator.Type type : GraphGenerator.Type.values()) {
+            Path output = tempDir.resolve(type.getOptionName() + "-edges.csrrg");
+            GraphGenerator.Result result = GraphGenerator.generate(type, 1024, 8000, 5, false, output.toString());
+
+            ParsedData data = new FileReader().parseFile(output.toString());
+            int[] groups = data.getEdgesArray();
+            int[] pointers = data.getRowPointersArray();
+            Set<Long> pairs = new HashSet<>();
+            for (int row = 0; row + 1 < pointers.length; row++) {
+                int vertex = groups[pointers[row]];
+                for (int i = pointers[row] + 1; i < pointers[row + 1]; i++) {
+                    assertNotEquals(vertex, groups[i], type.name());
+                    pairs.add((long) Math.min(vertex, groups[i]) << 32 | Math.max(vertex, groups[i]));
+                }
+            }
+            assertEquals(pairs.size(), result.getEdges(), type.name());
+        }
+    }
+
+    @Test
+    void testRmatKeepsRequestedEdgeCount() throws IOException {
+        Path output = tempDir.resolve("rmat.csrrg");
+        GraphGenerator.Result result = GraphGenerator.generate(GraphGenerator.Type.RMAT, 4096, 40000, 9, false,
+                output.toString());
+
+        // duplicate draws on the heavy rows are dropped, so a skewed graph keeps fewer edges than requested
+        assertTrue(result.getEdges() > 28000 && result.getEdges() <= 40000, "edges " + result.getEdges());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 class GraphTest {
 
@@ -105,4 +106,64 @@ class GraphTest {
         graph.setParsedData(pd);
         assertSame(pd, graph.getParsedData());
     }
+
+    @Test
+    void testCsrBackedGraph() {
+        GraphBuilder builder = new GraphBuilder(4);
+        builder.addEdge(0, 1);
+        builder.addEdge(1, 0);
+        builder.addEdge(1, 2);
+        builder.addEdge(2, 3);
+        Graph graph = new Graph(builder.build());
+
+        assertTrue(graph.isCompact());
+        assertEquals(3, graph.getEdges());
+        assertArrayEquals(new int[] { 0, 1, 3, 5, 6 }, graph.getCsr().getOffsets());
+        assertArrayEquals(new int[] { 1, 0, 2, 1, 3, 2 }, graph.getCsr().getTargets());
+        assertEquals(2, graph.getNode(1).getNeighbourCount());
+        assertSame(graph.getNode(2), graph.getNode(1).getNeighbours().get(1));
+        assertThrows(UnsupportedOperationException.class, () -> graph.getNode(0).addNeighbour(3));
+
+        graph.getNode(3).setPartId(1);
+        assertEquals(1, graph.getPartIds()[3]);
+        assertEquals(-1, graph.getNode(0).getPartId());
+    }
+
+    @Test
+    void testCsrNodeViewsAreCreatedOnce() {
+        GraphBuilder builder = new GraphBuilder(3);
+        builder.addEdge(0, 1);
+        builder.addEdge(1, 2);
+        Graph graph = new Graph(builder.build());
+
+        Node node = graph.getNode(1);
+        assertSame(node, graph.getNode(1));
+        assertSame(node.getNeighbours(), node.getNeighbours());
+        assertEquals(3, graph.getNodes().size());
+        assertSame(node, graph.getNodes().get(1));
+    }
+
+    @Test
+    void testCsrOfMutableGraphFollowsNeighbourChanges() {
+        Graph graph = new Graph(3);
+        graph.getNode(0).addNeighbour(1);
+        assertEquals(1, graph.getCsr().getEdges());
+
+        graph.getNode(2).addNeighbour(1);
+        assertEquals(2, graph.getCsr().getEdges());
+        assertArrayEquals(new int[] { 0, 2 }, Arrays.copyOfRange(graph.getCsr().getTargets(), 1, 3));
+    }
+
+    @Test
+    void testCsrOfMutableGraphIsUndirectedForOneSidedNeighbours() {
+        Graph graph = new Graph(3);
+        graph.getNode(0).addNeighbour(1);
+
+        assertTrue(graph.getNode(1).getNeighbours().isEmpty());
+        CsrGraph csr = graph.getCsr();
+        assertEquals(1, csr.getDegree(0));
+        assertEquals(1, csr.getDegree(1));
+        assertEquals(0, csr.getTargets()[csr.getOffsets()[1]]);
+        assertEquals(1, csr.getEdges());
+    }
 }
\ No newline at end of file
@@ -53,4 +53,16 @@ class NodeTest {
         Node node = new Node(7);
         assertEquals("7", node.toString());
     }
+
+    @Test
+    void testAddNeighbourRejectsDuplicatesOnHubNode() {
+        Node hub = new Node(0);
+        for (int i = 1; i <= 100; i++) {
+            assertTrue(hub.addNeighbour(i));
+        }
+        for (int i = 1; i <= 100; i++) {
+            assertFalse(hub.addNeighbour(i), "Duplicate neighbour " + i + " should be rejected");
+        }
+        assertEquals(100, hub.getNeighbourCount());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionDataTest {
+
+    @Test
+    void testAddMovesVertexBetweenPartitions() {
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.addVertexToPartition(0, 5);
+        partitionData.addVertexToPartition(0, 7);
+        partitionData.addVertexToPartition(0, 5);
+        partitionData.addVertexToPartition(1, 5);
+
+        Partition first = partitionData.getPartitions().get(0);
+        Partition second = partitionData.getPartitions().get(1);
+        assertEquals(List.of(7), first.getPartitionNodes());
+        assertEquals(1, first.getPartitionVertexCount());
+        assertTrue(second.contains(5));
+        assertFalse(first.contains(5));
+        assertEquals(1, partitionData.getPartOf(5));
+        assertEquals(-1, partitionData.getPartOf(6));
+    }
+
+    @Test
+    void testRemoveSwapsLastMemberIntoPlace() {
+        PartitionData partitionData = new PartitionData(1);
+        for (int v = 0; v < 4; v++) {
+            partitionData.addVertexToPartition(0, v);
+        }
+        Partition partition = partitionData.getPartitions().get(0);
+        partition.removeNode(1);
+        partition.removeNode(3);
+
+        assertEquals(List.of(0, 2), partition.getPartitionNodes());
+        assertEquals(2, partition.getPartitionVertexCount());
+        assertFalse(partition.contains(1));
+        partition.removeNode(0);
+        assertArrayEquals(new int[] { 2 }, partition.toArray());
+        assertTrue(partition.contains(2));
+    }
+
+    @Test
+    void testAssignFromPartIdsMovesOnlyChangedVertices() {
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.assignFromPartIds(new int[] { 0, 0, 1, 1, -1 });
+        partitionData.assignFromPartIds(new int[] { 0, 1, 1, 1, 0 });
+
+        Partition first = partitionData.getPartitions().get(0);
+        Partition second = partitionData.getPartitions().get(1);
+        assertEquals(2, first.getPartitionVertexCount());
+        assertEquals(3, second.getPartitionVertexCount());
+        assertTrue(first.contains(4));
+        assertTrue(second.contains(1));
+        assertFalse(first.contains(1));
+    }
+
+    @Test
+    void testReplacedPartitionIsIndexed() {
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.addVertexToPartition(0, 3);
+        partitionData.getPartitions().set(0, new Partition(0, 0, new ArrayList<>(Arrays.asList(0, 1))));
+        partitionData.getPartitions().set(1, new Partition(1, 0, Arrays.asList(2, 3)));
+
+        assertTrue(partitionData.getPartitions().get(0).contains(1));
+        assertFalse(partitionData.getPartitions().get(0).contains(3));
+        assertEquals(1, partitionData.getPartOf(3));
+    }
+
+    @Test
+    void testMovingVertexBetweenLivePartitionsUpdatesBothCounts() {
+        PartitionData partitionData = new PartitionData(2);
+        for (int v = 0; v < 4; v++) {
+            partitionData.addVertexToPartition(0, v);
+        }
+        Partition first = partitionData.getPartitions().get(0);
+        Partition second = partitionData.getPartitions().get(1);
+
+        second.addNode(2);
+        assertEquals(3, first.getPartitionVertexCount());
+        assertEquals(3, first.size());
+        assertEquals(1, second.getPartitionVertexCount());
+        assertFalse(first.getPartitionNodes().contains(2));
+        assertEquals(1, partitionData.getPartOf(2));
+
+        first.removeNode(2);
+        assertEquals(3, first.getPartitionVertexCount());
+        assertEquals(1, second.getPartitionVertexCount());
+
+        second.removeNode(2);
+        assertEquals(0, second.getPartitionVertexCount());
+        assertEquals(-1, partitionData.getPartOf(2));
+    }
+
+    @Test
+    void testStoredPartitionTakesVerticesFromLivePartition() {
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.assignFromPartIds(new int[] { 0, 0, 0 });
+        Partition first = partitionData.getPartitions().get(0);
+
+        partitionData.getPartitions().set(1, new Partition(1, 0, Arrays.asList(1, 2)));
+
+        Partition second = partitionData.getPartitions().get(1);
+        assertEquals(1, first.getPartitionVertexCount());
+        assertEquals(List.of(0), first.getPartitionNodes());
+        assertEquals(2, second.getPartitionVertexCount());
+        assertTrue(second.contains(1));
+        assertEquals(1, partitionData.getPartOf(2));
+    }
+
+    @Test
+    void testClearUnassignsMembers() {
+        PartitionData partitionData = new PartitionData(2);
+        partitionData.assignFromPartIds(new int[] { 0, 1, 0 });
+        partitionData.getPartitions().get(0).clear();
+
+        assertEquals(0, partitionData.getPartitions().get(0).getPartitionVertexCount());
+        assertEquals(-1, partitionData.getPartOf(0));
+        assertEquals(-1, partitionData.getPartOf(2));
+        assertEquals(1, partitionData.getPartOf(1));
+    }
+}
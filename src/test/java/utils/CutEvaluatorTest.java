@@ -0,0 +1,64 @@
+package utils;
+
+import model.CsrGraph;
+import model.Graph;
+import model.GraphBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CutEvaluatorTest {
+
+    // side x side grid split into parts horizontal stripes
+    private static CsrGraph grid(int side) {
+        GraphBuilder builder = new GraphBuilder(side * side);
+        for (int v = 0; v < side * side; v++) {
+            if (v % side + 1 < side) {
+                builder.addEdge(v, v + 1);
+            }
+            if (v + side < side * side) {
+                builder.addEdge(v, v + side);
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testCountCutEdgesSequentialAndParallelAgree() {
+        int side = 300;
+        int parts = 6;
+        CsrGraph csr = grid(side);
+        int[] partIds = new int[side * side];
+        for (int v = 0; v < partIds.length; v++) {
+            partIds[v] = (v / side) * parts / side;
+        }
+
+        assertEquals((parts - 1) * side, CutEvaluator.countCutEdges(csr, partIds));
+        assertEquals((parts - 1) * side, CutEvaluator.countCutEdges(csr, partIds, true));
+        assertEquals(2L * (parts - 1) * side, CutEvaluator.communicationVolume(csr, partIds, parts, false));
+        assertEquals(2L * (parts - 1) * side, CutEvaluator.communicationVolume(csr, partIds, parts, true));
+    }
+
+    @Test
+    void testCutWeightAndStatsAgree() {
+        CsrGraph csr = grid(4);
+        int[] partIds = { 0, 0, 1, 1, 0, 0, 1, 1, 2, 2, 2, 2, 2, 2, 2, 2 };
+        int[] edgeWeights = new int[csr.getTargets().length];
+        Arrays.fill(edgeWeights, 3);
+
+        Graph graph = new Graph(csr);
+        for (int v = 0; v < partIds.length; v++) {
+            graph.setPartId(v, partIds[v]);
+        }
+        Stats stats = new Stats();
+        stats.computePartitionQuality(graph, 3);
+
+        int cut = CutEvaluator.countCutEdges(csr, partIds);
+        assertEquals(6, cut);
+        assertEquals(stats.getCutEdges(), cut);
+        assertEquals(stats.getCommunicationVolume(), CutEvaluator.communicationVolume(csr, partIds, 3, false));
+        assertEquals(3 * cut, CutEvaluator.cutWeight(csr, edgeWeights, partIds, false));
+    }
+}
@@ -0,0 +1,66 @@
+package utils;
+
+import model.CsrGraph;
+import model.Graph;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsTest {
+
+    // path 0-1-2-3-4-5 with parts 0,0,1,1,0,0: part 0 is split into two pieces
+    private static Graph partitionedPath() {
+        int[] offsets = { 0, 1, 3, 5, 7, 9, 10 };
+        int[] targets = { 1, 0, 2, 1, 3, 2, 4, 3, 5, 4 };
+        Graph graph = new Graph(new CsrGraph(offsets, targets));
+        int[] parts = { 0, 0, 1, 1, 0, 0 };
+        for (int v = 0; v < parts.length; v++) {
+            graph.setPartId(v, parts[v]);
+        }
+        return graph;
+    }
+
+    @Test
+    void testComputePartitionQuality() {
+        Stats stats = new Stats();
+        stats.computePartitionQuality(partitionedPath(), 2);
+
+        assertEquals(6, stats.getVertices());
+        assertEquals(5, stats.getEdges());
+        assertEquals(2, stats.getCutEdges());
+        assertEquals(4, stats.getCommunicationVolume());
+        assertArrayEquals(new int[] { 4, 2 }, stats.getPartSizes());
+        assertArrayEquals(new int[] { 2, 2 }, stats.getBoundaryVertices());
+        assertArrayEquals(new int[] { 2, 1 }, stats.getComponents());
+        assertEquals(4 / 3.0, stats.getImbalance(), 1e-9);
+    }
+
+    @Test
+    void testCutMatchesCutEvaluatorWithUnassignedVertex() {
+        Graph graph = partitionedPath();
+        graph.setPartId(3, -1);
+        Stats stats = new Stats();
+        stats.computePartitionQuality(graph, 2);
+
+        assertEquals(1, stats.getUnassigned());
+        assertEquals(CutEvaluator.countCutEdges(graph.getCsr(), graph.getPartIds()), stats.getCutEdges());
+        assertEquals(3, stats.getCutEdges());
+        assertEquals(2, stats.getCommunicationVolume());
+        assertArrayEquals(new int[] { 4, 1 }, stats.getPartSizes());
+    }
+
+    @Test
+    void testToJsonContainsMetricsAndPhases() {
+        Stats stats = new Stats();
+        stats.addPhaseTime(Stats.Phase.PARSE, 1_500_000);
+        stats.addPhaseTime(Stats.Phase.PARSE, 500_000);
+        stats.computePartitionQuality(partitionedPath(), 2);
+
+        String json = stats.toJson();
+        assertTrue(json.contains("\"cutEdges\": 2,"));
+        assertTrue(json.contains("\"components\": [2, 1],"));
+        assertTrue(json.contains("\"parse\": 2.000"));
+        assertTrue(json.contains("\"write\": 0.000"));
+        assertEquals(2, stats.getPhaseMillis(Stats.Phase.PARSE));
+    }
+}